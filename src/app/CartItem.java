@@ -1,6 +1,7 @@
 package app;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class CartItem {
@@ -9,13 +10,61 @@ public class CartItem {
     private List<ProductModifierOption> selectedModifiers;
     private ProductBundle selectedBundle;
     private int quantity;
-    private double subtotal;
+    private long unitPriceCents;   // base or variant price plus modifiers, recomputed only when those change
+    private long subtotalCents;
+    private Key key;               // built on first use, dropped when the configuration changes
+
+    /**
+     * What makes two cart lines the same line: product, variant, bundle and
+     * the set of modifier options, by id and regardless of selection order.
+     */
+    public static final class Key {
+        private final int productId;
+        private final int variantId;
+        private final int bundleId;
+        private final int[] optionIds; // sorted
+        private final int hash;
+
+        private Key(int productId, int variantId, int bundleId, int[] optionIds) {
+            this.productId = productId;
+            this.variantId = variantId;
+            this.bundleId = bundleId;
+            this.optionIds = optionIds;
+            this.hash = 31 * (31 * (31 * productId + variantId) + bundleId) + Arrays.hashCode(optionIds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return hash == k.hash && productId == k.productId && variantId == k.variantId
+                    && bundleId == k.bundleId && Arrays.equals(optionIds, k.optionIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** The key a line with this configuration would have; variant and bundle may be null */
+    public static Key keyOf(Product product, ProductVariant variant, List<ProductModifierOption> modifiers,
+                            ProductBundle bundle) {
+        int[] optionIds = new int[modifiers != null ? modifiers.size() : 0];
+        for (int i = 0; i < optionIds.length; i++) {
+            optionIds[i] = modifiers.get(i).getId();
+        }
+        Arrays.sort(optionIds);
+        return new Key(product.getId(), variant != null ? variant.getId() : -1,
+                bundle != null ? bundle.getId() : -1, optionIds);
+    }
     
     public CartItem(Product product, int quantity) {
         this.product = product;
         this.quantity = quantity;
         this.selectedModifiers = new ArrayList<>();
-        calculateSubtotal();
+        calculateUnitPrice();
     }
     
     public CartItem(Product product, ProductVariant variant, List<ProductModifierOption> modifiers, ProductBundle bundle, int quantity) {
@@ -24,16 +73,16 @@ public class CartItem {
         this.selectedModifiers = modifiers != null ? modifiers : new ArrayList<>();
         this.selectedBundle = bundle;
         this.quantity = quantity;
-        calculateSubtotal();
+        calculateUnitPrice();
     }
     
-    private void calculateSubtotal() {
-        double basePrice = selectedVariant != null ? selectedVariant.getPrice() : product.getPrice();
-        double modifierPrice = 0.0;
+    private void calculateUnitPrice() {
+        long price = Money.toCents(selectedVariant != null ? selectedVariant.getPrice() : product.getPrice());
         for (ProductModifierOption option : selectedModifiers) {
-            modifierPrice += option.getPrice();
+            price += Money.toCents(option.getPrice());
         }
-        this.subtotal = (basePrice + modifierPrice) * quantity;
+        this.unitPriceCents = price;
+        this.subtotalCents = price * quantity;
     }
     
     // Getters and Setters
@@ -43,7 +92,8 @@ public class CartItem {
     
     public void setProduct(Product product) {
         this.product = product;
-        calculateSubtotal();
+        this.key = null;
+        calculateUnitPrice();
     }
     
     public ProductVariant getSelectedVariant() {
@@ -52,7 +102,8 @@ public class CartItem {
     
     public void setSelectedVariant(ProductVariant selectedVariant) {
         this.selectedVariant = selectedVariant;
-        calculateSubtotal();
+        this.key = null;
+        calculateUnitPrice();
     }
     
     public List<ProductModifierOption> getSelectedModifiers() {
@@ -61,7 +112,8 @@ public class CartItem {
     
     public void setSelectedModifiers(List<ProductModifierOption> selectedModifiers) {
         this.selectedModifiers = selectedModifiers != null ? selectedModifiers : new ArrayList<>();
-        calculateSubtotal();
+        this.key = null;
+        calculateUnitPrice();
     }
     
     public ProductBundle getSelectedBundle() {
@@ -70,6 +122,15 @@ public class CartItem {
     
     public void setSelectedBundle(ProductBundle selectedBundle) {
         this.selectedBundle = selectedBundle;
+        this.key = null;
+    }
+    
+    /** This line's configuration key; changes if product, variant, modifiers or bundle are replaced */
+    public Key getKey() {
+        if (key == null) {
+            key = keyOf(product, selectedVariant, selectedModifiers, selectedBundle);
+        }
+        return key;
     }
     
     public int getQuantity() {
@@ -78,15 +139,20 @@ public class CartItem {
     
     public void setQuantity(int quantity) {
         this.quantity = quantity;
-        calculateSubtotal();
+        this.subtotalCents = unitPriceCents * quantity;
     }
     
     public double getSubtotal() {
-        return subtotal;
+        return Money.toAmount(subtotalCents);
+    }
+
+    public long getSubtotalCents() {
+        return subtotalCents;
     }
     
+    /** Recompute the unit price, e.g. after a selected variant or option was edited in place */
     public void updateSubtotal() {
-        calculateSubtotal();
+        calculateUnitPrice();
     }
     
     // Helper methods for TableView
@@ -110,12 +176,11 @@ public class CartItem {
     }
     
     public double getPrice() {
-        double basePrice = selectedVariant != null ? selectedVariant.getPrice() : product.getPrice();
-        double modifierPrice = 0.0;
-        for (ProductModifierOption option : selectedModifiers) {
-            modifierPrice += option.getPrice();
-        }
-        return basePrice + modifierPrice;
+        return Money.toAmount(unitPriceCents);
+    }
+
+    public long getUnitPriceCents() {
+        return unitPriceCents;
     }
     
     public int getProductId() {
@@ -1,5 +1,10 @@
 package app;
 
+import cache.ReportCache;
+import database.Database;
+import database.SchemaBootstrap;
+import service.SaleJournal;
+import java.io.IOException;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -18,6 +23,16 @@ public class Main extends Application {
     public void start(Stage primaryStage) throws Exception {
         stage = primaryStage;
 
+        // Create or upgrade tables and indexes once, instead of on every screen
+        SchemaBootstrap.ensure();
+
+        // Replay sales journaled during a previous run (e.g. while MySQL was down)
+        try {
+            SaleJournal.getInstance();
+        } catch (IOException e) {
+            System.err.println("⚠ Could not open sale journal: " + e.getMessage());
+        }
+
         // Start with Login
         Parent root = FXMLLoader.load(getClass().getResource("/fxml/Login.fxml"));
         Scene scene = new Scene(root, 800, 600);
@@ -53,6 +68,16 @@ public class Main extends Application {
 }
 
 
+    @Override
+    public void stop() {
+        SaleJournal.shutdown(5_000); // give queued sales a moment to reach MySQL
+        ReportCache reports = ReportCache.getInstance();
+        System.out.printf("Report cache: %d hits, %d misses (%.0f%% hit rate), %d invalidated, %d evicted%n",
+                reports.getHits(), reports.getMisses(), reports.getHitRate() * 100,
+                reports.getInvalidations(), reports.getEvictions());
+        Database.shutdown();
+    }
+
     public static Stage getStage() {
         return stage;
     }
@@ -0,0 +1,45 @@
+package app;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Peso amounts as whole centavos. Prices are stored as DECIMAL(…, 2) and read
+ * into doubles; converting them once with {@link #toCents(double)} lets cart
+ * totals, discounts and change be added up exactly.
+ */
+public final class Money {
+
+    private Money() {}
+
+    /** Nearest whole centavo of a two-decimal price */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    /** Parse typed input such as "500" or "99.95", rounding half up to the centavo */
+    public static long parseCents(String text) throws NumberFormatException {
+        try {
+            return new BigDecimal(text.trim()).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    /** "₱1234.50", the same text as String.format("₱%.2f"), without going through floating point */
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(16);
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long centavos = cents % 100;
+        sb.append('₱').append(cents / 100).append('.');
+        if (centavos < 10) sb.append('0');
+        return sb.append(centavos).toString();
+    }
+}
@@ -0,0 +1,39 @@
+package app;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything the cashier can choose when adding one product to the cart: its
+ * variants, its modifiers (each with its options attached) and the components
+ * of its bundles.
+ */
+public class ProductConfiguration {
+    private final int productId;
+    private final List<ProductVariant> variants;
+    private final List<ProductModifier> modifiers;
+    private final List<ProductBundle> bundles;
+
+    public ProductConfiguration(int productId, List<ProductVariant> variants, List<ProductModifier> modifiers,
+                                List<ProductBundle> bundles) {
+        this.productId = productId;
+        this.variants = Collections.unmodifiableList(variants);
+        this.modifiers = Collections.unmodifiableList(modifiers);
+        this.bundles = Collections.unmodifiableList(bundles);
+    }
+
+    /** A product with nothing to choose */
+    public static ProductConfiguration empty(int productId) {
+        return new ProductConfiguration(productId, Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList());
+    }
+
+    public int getProductId() { return productId; }
+    public List<ProductVariant> getVariants() { return variants; }
+    public List<ProductModifier> getModifiers() { return modifiers; }
+    public List<ProductBundle> getBundles() { return bundles; }
+
+    public boolean isEmpty() {
+        return variants.isEmpty() && modifiers.isEmpty() && bundles.isEmpty();
+    }
+}
@@ -0,0 +1,44 @@
+package app;
+
+public class SaleItem {
+    private int id;
+    private int saleId;
+    private int productId;
+    private String productName;
+    private int quantity;
+    private double price;
+    private double subtotal;
+
+    public SaleItem() {}
+
+    public SaleItem(int id, int saleId, int productId, String productName, int quantity, double price, double subtotal) {
+        this.id = id;
+        this.saleId = saleId;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.price = price;
+        this.subtotal = subtotal;
+    }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public int getSaleId() { return saleId; }
+    public void setSaleId(int saleId) { this.saleId = saleId; }
+
+    public int getProductId() { return productId; }
+    public void setProductId(int productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+
+    public double getSubtotal() { return subtotal; }
+    public void setSubtotal(double subtotal) { this.subtotal = subtotal; }
+}
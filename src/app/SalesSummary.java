@@ -0,0 +1,46 @@
+package app;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregated sales for one period (and optionally one cashier), computed by
+ * the database: from the sales_rollup table, or by a single aggregate query
+ * over sales (which can also report the smallest and largest sale).
+ */
+public class SalesSummary {
+    private LocalDateTime periodStart;   // null for a summary over a whole range
+    private String cashierEmail;         // null when summed over all cashiers
+    private int transactionCount;
+    private double totalAmount;
+    private int totalItems;
+    private double smallestSale;         // only known when summed from the sales table
+    private double largestSale;
+
+    public SalesSummary(LocalDateTime periodStart, String cashierEmail, int transactionCount,
+                        double totalAmount, int totalItems) {
+        this.periodStart = periodStart;
+        this.cashierEmail = cashierEmail;
+        this.transactionCount = transactionCount;
+        this.totalAmount = totalAmount;
+        this.totalItems = totalItems;
+    }
+
+    public SalesSummary(LocalDateTime periodStart, String cashierEmail, int transactionCount,
+                        double totalAmount, int totalItems, double smallestSale, double largestSale) {
+        this(periodStart, cashierEmail, transactionCount, totalAmount, totalItems);
+        this.smallestSale = smallestSale;
+        this.largestSale = largestSale;
+    }
+
+    public LocalDateTime getPeriodStart() { return periodStart; }
+    public String getCashierEmail() { return cashierEmail; }
+    public int getTransactionCount() { return transactionCount; }
+    public double getTotalAmount() { return totalAmount; }
+    public int getTotalItems() { return totalItems; }
+    public double getSmallestSale() { return smallestSale; }
+    public double getLargestSale() { return largestSale; }
+
+    public double getAverageSale() {
+        return transactionCount > 0 ? totalAmount / transactionCount : 0.0;
+    }
+}
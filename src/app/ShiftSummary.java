@@ -0,0 +1,22 @@
+package app;
+
+import java.time.LocalDateTime;
+
+/**
+ * One cashier's sales over a shift, with the times of the first and last sale
+ * for end-of-shift reconciliation.
+ */
+public class ShiftSummary extends SalesSummary {
+    private LocalDateTime firstSale;   // null when the cashier made no sales
+    private LocalDateTime lastSale;
+
+    public ShiftSummary(LocalDateTime shiftStart, String cashierEmail, int transactionCount, double totalAmount,
+                        int totalItems, LocalDateTime firstSale, LocalDateTime lastSale) {
+        super(shiftStart, cashierEmail, transactionCount, totalAmount, totalItems);
+        this.firstSale = firstSale;
+        this.lastSale = lastSale;
+    }
+
+    public LocalDateTime getFirstSale() { return firstSale; }
+    public LocalDateTime getLastSale() { return lastSale; }
+}
@@ -1,12 +1,21 @@
 package app;
 
+import java.time.LocalDateTime;
+
 public class UserSession {
     private static String currentUserEmail;
     private static String currentUserRole;
+    private static LocalDateTime loginTime;
     
     public static void setUser(String email, String role) {
         currentUserEmail = email;
         currentUserRole = role;
+        loginTime = LocalDateTime.now();
+    }
+
+    /** When the current user logged in, i.e. the start of their shift */
+    public static LocalDateTime getLoginTime() {
+        return loginTime;
     }
     
     public static String getCurrentUserEmail() {
@@ -20,6 +29,7 @@ public class UserSession {
     public static void clear() {
         currentUserEmail = null;
         currentUserRole = null;
+        loginTime = null;
     }
 }
 
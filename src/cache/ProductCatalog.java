@@ -0,0 +1,261 @@
+package cache;
+
+import app.Product;
+import dao.ProductDAO;
+import dao.impl.ProductDAOImpl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Process-wide in-memory copy of the product catalog used by the register.
+ *
+ * Loaded once from {@link ProductDAO#loadAll()} on first use and then kept in
+ * step by the product write paths (ProductDAO, ProductController) and by
+ * completed sales, so browsing, category filtering and search never go back
+ * to MySQL. Products are indexed by id and by category, each kept sorted by
+ * name the same way the register lists them, by trigram for search, and by
+ * barcode and SKU for the scanner. A load that fails is thrown to the caller
+ * and retried by the next read, rather than leaving the register empty.
+ */
+public class ProductCatalog {
+
+    private static final ProductCatalog INSTANCE = new ProductCatalog();
+
+    // Same ordering as "ORDER BY p.name" under MySQL's case-insensitive collation
+    private static final Comparator<Product> BY_NAME = Comparator
+            .comparing((Product p) -> p.getName() != null ? p.getName() : "", String.CASE_INSENSITIVE_ORDER)
+            .thenComparingInt(Product::getId);
+
+    // More than a cashier will scroll through; keeps ranking cheap for one-letter searches
+    private static final int SEARCH_LIMIT = 200;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Product> byId = new HashMap<>();
+    private final TreeSet<Product> sorted = new TreeSet<>(BY_NAME);
+    private final Map<Integer, TreeSet<Product>> byCategory = new HashMap<>();
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+    private final Map<String, Product> byBarcode = new HashMap<>();
+    private final Map<String, Product> bySku = new HashMap<>();
+    private boolean loaded;
+
+    private ProductCatalog() {}
+
+    public static ProductCatalog getInstance() {
+        return INSTANCE;
+    }
+
+    /** Active, in-stock products ordered by name */
+    public List<Product> getAvailable() throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return available(sorted);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Active, in-stock products of one category ordered by name */
+    public List<Product> getAvailableByCategory(int categoryId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            TreeSet<Product> products = byCategory.get(categoryId);
+            return products != null ? available(products) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active, in-stock products matching the term by name, description, SKU or
+     * barcode, best match first (see {@link ProductSearchIndex}), capped at
+     * {@value #SEARCH_LIMIT}
+     */
+    public List<Product> searchAvailable(String searchTerm) throws SQLException {
+        ensureLoaded();
+        List<Product> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int id : searchIndex.search(searchTerm, id -> isAvailable(byId.get(id)), SEARCH_LIMIT)) {
+                result.add(byId.get(id));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /** The product if the catalog is loaded, otherwise null; never touches the database */
+    public Product getById(int productId) {
+        lock.readLock().lock();
+        try {
+            return byId.get(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Exact barcode match, whether or not the product is available; null until loaded */
+    public Product getByBarcode(String barcode) {
+        lock.readLock().lock();
+        try {
+            return byBarcode.get(barcode);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Exact SKU match, whether or not the product is available; null until loaded */
+    public Product getBySku(String sku) {
+        lock.readLock().lock();
+        try {
+            return bySku.get(sku);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Re-read one product after it was inserted or updated */
+    public void refresh(int productId) {
+        if (!isLoaded()) return;
+        Product fresh = new ProductDAOImpl().findById(productId);
+        lock.writeLock().lock();
+        try {
+            unindex(byId.get(productId));
+            if (fresh != null) {
+                index(fresh);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            unindex(byId.get(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setStock(int productId, int newStock) {
+        lock.writeLock().lock();
+        try {
+            Product p = byId.get(productId);
+            if (p != null) {
+                p.setCurrentStock(newStock);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Apply a committed stock movement, e.g. -quantity for a sold cart line */
+    public void adjustStock(int productId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Product p = byId.get(productId);
+            if (p != null) {
+                p.setCurrentStock(p.getCurrentStock() + delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drop everything; the next read reloads from the database */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Load the catalog unless it already is; a failed load leaves it unloaded */
+    public void ensureLoaded() throws SQLException {
+        if (isLoaded()) return;
+        lock.writeLock().lock();
+        try {
+            if (loaded) return;
+            List<Product> products = new ProductDAOImpl().loadAll();
+            clear();
+            for (Product p : products) {
+                index(p);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Product p) {
+        byId.put(p.getId(), p);
+        sorted.add(p);
+        byCategory.computeIfAbsent(p.getCategoryId(), k -> new TreeSet<>(BY_NAME)).add(p);
+        searchIndex.add(p);
+        if (hasCode(p.getBarcode())) byBarcode.put(p.getBarcode(), p);
+        if (hasCode(p.getSku())) bySku.put(p.getSku(), p);
+    }
+
+    private void unindex(Product p) {
+        if (p == null) return;
+        byId.remove(p.getId());
+        sorted.remove(p);
+        TreeSet<Product> category = byCategory.get(p.getCategoryId());
+        if (category != null) {
+            category.remove(p);
+        }
+        searchIndex.remove(p.getId());
+        if (hasCode(p.getBarcode())) byBarcode.remove(p.getBarcode(), p);
+        if (hasCode(p.getSku())) bySku.remove(p.getSku(), p);
+    }
+
+    private void clear() {
+        byId.clear();
+        sorted.clear();
+        byCategory.clear();
+        searchIndex.clear();
+        byBarcode.clear();
+        bySku.clear();
+    }
+
+    private static List<Product> available(TreeSet<Product> products) {
+        List<Product> result = new ArrayList<>();
+        for (Product p : products) {
+            if (isAvailable(p)) {
+                result.add(p);
+            }
+        }
+        return result;
+    }
+
+    // Blank codes are stored as '' by some screens; they must not match each other
+    private static boolean hasCode(String code) {
+        return code != null && !code.isEmpty();
+    }
+
+    private static boolean isAvailable(Product p) {
+        return p.isIsActive() && p.getCurrentStock() > 0;
+    }
+}
@@ -0,0 +1,98 @@
+package cache;
+
+import app.ProductConfiguration;
+import app.ProductVariant;
+import dao.ProductConfigurationDAO;
+import dao.impl.ProductConfigurationDAOImpl;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Variants, modifiers (with options) and bundle components per product, so the
+ * register can open the product options dialog without touching MySQL.
+ *
+ * {@link #preload()} reads every product's configuration in one query; until
+ * then, or after {@link #invalidate()}, a product missing from memory is loaded
+ * on its own, also in one query, and kept. Every screen that edits variants,
+ * modifiers, options, bundles or products calls {@link #invalidate()}, the same
+ * way it drops {@link ScanIndex}. Loads that started before an invalidation
+ * are not stored, so they cannot bring back what was just edited.
+ */
+public class ProductConfigurationCache {
+
+    private static final ProductConfigurationCache INSTANCE = new ProductConfigurationCache();
+
+    private final ProductConfigurationDAO configurationDAO = new ProductConfigurationDAOImpl();
+    private final Map<Integer, ProductConfiguration> byProductId = new HashMap<>();
+    private boolean complete;   // every product is loaded; a missing one has nothing to choose
+    private long generation;    // bumped by invalidate()
+
+    private ProductConfigurationCache() {}
+
+    public static ProductConfigurationCache getInstance() {
+        return INSTANCE;
+    }
+
+    /** The product's configuration if it is in memory, otherwise null; never blocks on I/O */
+    public synchronized ProductConfiguration peek(int productId) {
+        ProductConfiguration cached = byProductId.get(productId);
+        if (cached == null && complete) {
+            return ProductConfiguration.empty(productId);
+        }
+        return cached;
+    }
+
+    /** The product's configuration, loading it if needed. Blocks on I/O; keep it off the FX thread. */
+    public ProductConfiguration get(int productId) throws SQLException {
+        long loadGeneration;
+        synchronized (this) {
+            ProductConfiguration cached = peek(productId);
+            if (cached != null) return cached;
+            loadGeneration = generation;
+        }
+        ProductConfiguration loaded = configurationDAO.findByProductId(productId);
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                byProductId.put(productId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /** Load every product's configuration in one query, unless already loaded */
+    public void preload() throws SQLException {
+        long loadGeneration;
+        synchronized (this) {
+            if (complete) return;
+            loadGeneration = generation;
+        }
+        Map<Integer, ProductConfiguration> all = configurationDAO.findAll();
+        synchronized (this) {
+            if (loadGeneration != generation || complete) return;
+            byProductId.clear();
+            byProductId.putAll(all);
+            complete = true;
+        }
+    }
+
+    /** Apply a committed stock movement to a cached variant */
+    public synchronized void adjustVariantStock(int productId, int variantId, int delta) {
+        ProductConfiguration configuration = byProductId.get(productId);
+        if (configuration == null) return;
+        for (ProductVariant variant : configuration.getVariants()) {
+            if (variant.getId() == variantId) {
+                variant.setStock(variant.getStock() + delta);
+                return;
+            }
+        }
+    }
+
+    /** Drop everything; call after editing variants, modifiers, options, bundles or products */
+    public synchronized void invalidate() {
+        byProductId.clear();
+        complete = false;
+        generation++;
+    }
+}
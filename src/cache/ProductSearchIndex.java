@@ -0,0 +1,426 @@
+package cache;
+
+import app.Product;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Trigram index over product name, description, SKU and barcode.
+ *
+ * Every word is indexed with two leading blanks and one trailing blank
+ * ("  cola "), so a query matches word prefixes from its first character and
+ * substrings from its third. A product matches when it shares at least half of
+ * the trigrams of every query word, which tolerates a mistyped or swapped
+ * letter; results are ranked by that overlap plus bonuses for exact
+ * SKU/barcode hits and for matches at the start of the name.
+ *
+ * Products are kept in dense slots; a search only allocates scoring state for
+ * the products its rarest grams can reach, not for the whole catalog.
+ * Not thread-safe: {@link ProductCatalog} guards it with its read/write lock.
+ */
+final class ProductSearchIndex {
+
+    private static final double MIN_SIMILARITY = 0.5;
+
+    // Highest score first, then by name
+    private static final Comparator<Match> RANKING = (a, b) -> {
+        int byScore = Double.compare(b.score, a.score);
+        return byScore != 0 ? byScore : a.doc.name.compareTo(b.doc.name);
+    };
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, Integer> slotById = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private Doc[] docs = new Doc[256];
+    private int slotCount;
+
+    void add(Product p) {
+        remove(p.getId());
+        Doc doc = new Doc(p.getId(), normalize(p.getName()), normalize(p.getDescription()),
+                normalize(p.getSku()), normalize(p.getBarcode()));
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        if (slot >= docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+        }
+        docs[slot] = doc;
+        slotById.put(doc.productId, slot);
+        for (String gram : doc.trigrams()) {
+            postings.computeIfAbsent(gram, k -> new Postings()).add(slot);
+        }
+    }
+
+    void remove(int productId) {
+        Integer slot = slotById.remove(productId);
+        if (slot == null) return;
+        for (String gram : docs[slot].trigrams()) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(slot) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        docs[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    void clear() {
+        postings.clear();
+        slotById.clear();
+        freeSlots.clear();
+        docs = new Doc[256];
+        slotCount = 0;
+    }
+
+    /**
+     * Ids of at most {@code limit} products matching {@code query} and accepted by
+     * {@code filter}, best match first. Every word of the query has to match.
+     */
+    List<Integer> search(String query, IntPredicate filter, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) return new ArrayList<>();
+
+        String[] words = q.split(" ");
+
+        // Start from the most selective word so later words only filter a short list
+        List<WordQuery> wordQueries = new ArrayList<>();
+        for (int w = 0; w < words.length; w++) {
+            wordQueries.add(new WordQuery(words[w], w == words.length - 1));
+        }
+        wordQueries.sort(Comparator.comparingLong(WordQuery::introducerPostings));
+
+        // Scratch state is per candidate, not per slot, so a selective query costs
+        // little however large the catalog is
+        Candidates c = new Candidates((int) Math.min(wordQueries.get(0).introducerPostings(), slotCount), slotCount);
+        int[] candidates = new int[c.capacity];   // indexes into c, compacted after each word
+        int candidateCount = 0;
+
+        for (int w = 0; w < wordQueries.size(); w++) {
+            WordQuery word = wordQueries.get(w);
+            if (w == 0) {
+                for (Gram g : word.introducers()) {
+                    for (int i = 0; i < g.list.size; i++) {
+                        int n = c.indexOf(g.list.slots[i]);
+                        if (n < 0) {
+                            n = c.add(g.list.slots[i]);
+                            c.round[n] = 1;
+                            candidates[candidateCount++] = n;
+                        }
+                        c.hits[n]++;
+                        if (g.inner) c.innerHits[n]++;
+                    }
+                    g.counted = true;
+                }
+            }
+            // Count the remaining grams for the current candidates, scanning or probing whichever is cheaper
+            for (Gram g : word.grams) {
+                if (g.counted || g.list == null) continue;
+                if (g.list.size <= candidateCount) {
+                    for (int i = 0; i < g.list.size; i++) {
+                        int n = c.indexOf(g.list.slots[i]);
+                        if (n >= 0 && c.round[n] == w + 1) {
+                            c.hits[n]++;
+                            if (g.inner) c.innerHits[n]++;
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < candidateCount; i++) {
+                        int n = candidates[i];
+                        if (g.list.contains(c.slots[n])) {
+                            c.hits[n]++;
+                            if (g.inner) c.innerHits[n]++;
+                        }
+                    }
+                }
+            }
+
+            int kept = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                int n = candidates[i];
+                double sim = word.similarity(c.hits[n], c.innerHits[n]);
+                c.hits[n] = 0;
+                c.innerHits[n] = 0;
+                if (sim >= word.required) {
+                    c.similarity[n] += sim;
+                    c.round[n] = w + 2;
+                    candidates[kept++] = n;
+                }
+            }
+            candidateCount = kept;
+            if (candidateCount == 0) break;
+        }
+
+        // Keep the best {@code limit} in a min-heap, then emit them best first
+        PriorityQueue<Match> top = new PriorityQueue<>(RANKING.reversed());
+        for (int i = 0; i < candidateCount; i++) {
+            int n = candidates[i];
+            Doc doc = docs[c.slots[n]];
+            double score = c.similarity[n] * 100 / words.length + doc.bonus(q);
+            if (top.size() == limit) {
+                Match worst = top.peek();
+                if (score < worst.score || (score == worst.score && doc.name.compareTo(worst.doc.name) >= 0)) {
+                    continue;
+                }
+            }
+            if (!filter.test(doc.productId)) continue;
+            top.add(new Match(doc, score));
+            if (top.size() > limit) top.poll();
+        }
+        List<Match> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        List<Integer> result = new ArrayList<>(ranked.size());
+        for (Match m : ranked) {
+            result.add(m.doc.productId);
+        }
+        return result;
+    }
+
+    /** Lower-case, with anything that is not a letter or digit treated as a word break */
+    static String normalize(String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length());
+        boolean space = true;
+        for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int end = sb.length();
+        if (end > 0 && sb.charAt(end - 1) == ' ') sb.setLength(end - 1);
+        return sb.toString();
+    }
+
+    private static void addTrigrams(Set<String> out, String s) {
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            out.add(s.substring(i, i + 3));
+        }
+    }
+
+    /** Trigrams of one query word with the postings they hit */
+    private final class WordQuery {
+        final List<Gram> grams = new ArrayList<>();
+        final int paddedCount;
+        final int innerCount;
+        final double required;
+
+        WordQuery(String word, boolean last) {
+            // Padded grams match word prefixes (and tolerate typos); inner grams match mid-word substrings
+            Set<String> padded = new LinkedHashSet<>();
+            Set<String> inner = new LinkedHashSet<>();
+            addTrigrams(padded, "  " + word + (last ? "" : " "));
+            addTrigrams(inner, word);
+            for (String gram : padded) {
+                grams.add(new Gram(postings.get(gram), inner.contains(gram)));
+            }
+            paddedCount = padded.size();
+            innerCount = inner.size();
+            // One- and two-letter words have too few grams to tolerate a typo, and a
+            // near miss on a code or number is a different product, not a typo
+            boolean hasDigit = word.chars().anyMatch(Character::isDigit);
+            required = paddedCount <= 2 || hasDigit ? 1.0 : MIN_SIMILARITY;
+        }
+
+        double similarity(int hits, int innerHits) {
+            double sim = (double) hits / paddedCount;
+            return innerCount > 0 ? Math.max(sim, (double) innerHits / innerCount) : sim;
+        }
+
+        /**
+         * A product reaching the threshold must appear in at least one of the
+         * n - t + 1 rarest lists (n grams, t hits required), so only those are
+         * scanned to find candidates; the common lists are then only probed.
+         */
+        List<Gram> introducers() {
+            List<Gram> rarest = new ArrayList<>(grams);
+            rarest.sort(Comparator.comparingInt(Gram::size));
+            List<Gram> result = new ArrayList<>(rarest.subList(0, paddedCount - needed(paddedCount) + 1));
+            if (innerCount > 0) {
+                rarest.removeIf(g -> !g.inner);
+                for (Gram g : rarest.subList(0, innerCount - needed(innerCount) + 1)) {
+                    if (!result.contains(g)) result.add(g);
+                }
+            }
+            result.removeIf(g -> g.list == null);
+            return result;
+        }
+
+        long introducerPostings() {
+            long total = 0;
+            for (Gram g : introducers()) {
+                total += g.size();
+            }
+            return total;
+        }
+
+        private int needed(int gramCount) {
+            return (int) Math.ceil(required * gramCount);
+        }
+    }
+
+    private static final class Gram {
+        final Postings list;
+        final boolean inner;
+        boolean counted;
+
+        Gram(Postings list, boolean inner) {
+            this.list = list;
+            this.inner = inner;
+        }
+
+        int size() {
+            return list != null ? list.size : 0;
+        }
+    }
+
+    private static final class Doc {
+        final int productId;
+        final String name;
+        final String description;
+        final String sku;
+        final String barcode;
+
+        Doc(int productId, String name, String description, String sku, String barcode) {
+            this.productId = productId;
+            this.name = name;
+            this.description = description;
+            this.sku = sku;
+            this.barcode = barcode;
+        }
+
+        Set<String> trigrams() {
+            Set<String> grams = new LinkedHashSet<>();
+            for (String field : new String[] { name, description, sku, barcode }) {
+                if (field.isEmpty()) continue;
+                for (String word : field.split(" ")) {
+                    addTrigrams(grams, "  " + word + " ");
+                }
+            }
+            return grams;
+        }
+
+        double bonus(String q) {
+            if (q.equals(sku) || q.equals(barcode)) return 200;
+            double bonus = 0;
+            if (name.startsWith(q)) bonus += 60;
+            else if (name.contains(q)) bonus += 30;
+            if (sku.startsWith(q) || barcode.startsWith(q)) bonus += 40;
+            if (description.contains(q)) bonus += 10;
+            return bonus;
+        }
+    }
+
+    /**
+     * Per-query scoring state for the products that can still match, sized to
+     * the first word's candidates. Slots map to candidate indexes through an
+     * open-addressing table, or a direct array when the candidates are a large
+     * share of the catalog anyway.
+     */
+    private static final class Candidates {
+        final int capacity;
+        final int[] slots;
+        final int[] hits;
+        final int[] innerHits;
+        final int[] round;          // w + 1 while a candidate is being counted for word w
+        final double[] similarity;
+        private final int[] table;  // index + 1, 0 when empty
+        private final int mask;     // -1 when table is indexed by slot directly
+        private int size;
+
+        Candidates(int capacity, int slotCount) {
+            this.capacity = capacity;
+            slots = new int[capacity];
+            hits = new int[capacity];
+            innerHits = new int[capacity];
+            round = new int[capacity];
+            similarity = new double[capacity];
+            if (capacity >= slotCount / 8) {
+                table = new int[slotCount];
+                mask = -1;
+            } else {
+                int tableSize = Integer.highestOneBit(Math.max(4, capacity) * 2 - 1) << 1;
+                table = new int[tableSize];
+                mask = tableSize - 1;
+            }
+        }
+
+        int indexOf(int slot) {
+            if (mask < 0) return table[slot] - 1;
+            for (int h = mix(slot) & mask; ; h = (h + 1) & mask) {
+                int entry = table[h];
+                if (entry == 0) return -1;
+                if (slots[entry - 1] == slot) return entry - 1;
+            }
+        }
+
+        /** Only called for a slot not added yet */
+        int add(int slot) {
+            int h = slot;
+            if (mask >= 0) {
+                h = mix(slot) & mask;
+                while (table[h] != 0) {
+                    h = (h + 1) & mask;
+                }
+            }
+            slots[size] = slot;
+            table[h] = ++size;
+            return size - 1;
+        }
+
+        private static int mix(int slot) {
+            return slot * 0x9E3779B9;
+        }
+    }
+
+    private static final class Match {
+        final Doc doc;
+        final double score;
+
+        Match(Doc doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    /** Sorted, growable list of slots containing one trigram */
+    private static final class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            int pos = Arrays.binarySearch(slots, 0, size, slot);
+            if (pos >= 0) return;
+            pos = -pos - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, pos, slots, pos + 1, size - pos);
+            slots[pos] = slot;
+            size++;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+
+        boolean remove(int slot) {
+            int pos = Arrays.binarySearch(slots, 0, size, slot);
+            if (pos < 0) return false;
+            System.arraycopy(slots, pos + 1, slots, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package cache;
+
+import app.Category;
+import app.Supplier;
+import dao.CategoryDAO;
+import dao.SupplierDAO;
+import dao.impl.CategoryDAOImpl;
+import dao.impl.SupplierDAOImpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Category and supplier names and ids, so saving a product or filling a combo
+ * box does not query MySQL for reference data.
+ *
+ * Each table is loaded in full through its DAO on first use and dropped by
+ * {@link #invalidateCategories()} / {@link #invalidateSuppliers()}, which the
+ * DAOs and the category and supplier screens call after every change. Names
+ * are matched case-insensitively, like MySQL's collation does. A name that is
+ * not in memory (e.g. added from another terminal) is looked up once through
+ * the DAO and kept.
+ */
+public class ReferenceData {
+
+    private static final ReferenceData INSTANCE = new ReferenceData();
+
+    private final CategoryDAO categoryDAO = new CategoryDAOImpl();
+    private final SupplierDAO supplierDAO = new SupplierDAOImpl();
+
+    private final Names categories = new Names();
+    private final Names suppliers = new Names();
+
+    /** One table's id <-> name maps and its names in display order */
+    private static final class Names {
+        final Map<String, Integer> idByName = new HashMap<>();   // lower-cased name
+        final Map<Integer, String> nameById = new HashMap<>();
+        final List<String> sorted = new ArrayList<>();
+        boolean loaded;
+
+        void clear() {
+            idByName.clear();
+            nameById.clear();
+            sorted.clear();
+            loaded = false;
+        }
+
+        void add(int id, String name) {
+            if (name == null) return;
+            idByName.putIfAbsent(key(name), id);
+            nameById.put(id, name);
+        }
+
+        /** Add a row found outside a full load; skipped when nothing is loaded yet */
+        void remember(int id, String name) {
+            if (!loaded) return;
+            add(id, name);
+            sort();
+        }
+
+        void sort() {
+            sorted.clear();
+            sorted.addAll(nameById.values());
+            sorted.sort(String.CASE_INSENSITIVE_ORDER);
+        }
+    }
+
+    private ReferenceData() {}
+
+    public static ReferenceData getInstance() {
+        return INSTANCE;
+    }
+
+    /** Category names ordered by name, for combo boxes */
+    public List<String> getCategoryNames() {
+        synchronized (categories) {
+            ensureCategories();
+            return new ArrayList<>(categories.sorted);
+        }
+    }
+
+    /** Categories ordered by name */
+    public List<Category> getCategories() {
+        List<Category> result = new ArrayList<>();
+        synchronized (categories) {
+            ensureCategories();
+            for (String name : categories.sorted) {
+                result.add(new Category(categories.idByName.get(key(name)), name));
+            }
+        }
+        return result;
+    }
+
+    /** Id of the named category, or null when there is none */
+    public Integer getCategoryId(String name) {
+        if (name == null || name.trim().isEmpty()) return null;
+        synchronized (categories) {
+            ensureCategories();
+            Integer id = categories.idByName.get(key(name));
+            if (id != null) return id;
+        }
+        Category found = categoryDAO.findByName(name.trim());
+        if (found == null) return null;
+        synchronized (categories) {
+            categories.remember(found.getId(), found.getName());
+        }
+        return found.getId();
+    }
+
+    public String getCategoryName(int id) {
+        synchronized (categories) {
+            ensureCategories();
+            return categories.nameById.get(id);
+        }
+    }
+
+    /** Supplier names ordered by name, for combo boxes */
+    public List<String> getSupplierNames() {
+        synchronized (suppliers) {
+            ensureSuppliers();
+            return new ArrayList<>(suppliers.sorted);
+        }
+    }
+
+    /** Id of the named supplier, or null when there is none */
+    public Integer getSupplierId(String name) {
+        if (name == null || name.trim().isEmpty()) return null;
+        synchronized (suppliers) {
+            ensureSuppliers();
+            Integer id = suppliers.idByName.get(key(name));
+            if (id != null) return id;
+        }
+        Supplier found = supplierDAO.findByName(name.trim());
+        if (found == null) return null;
+        synchronized (suppliers) {
+            suppliers.remember(found.getId(), found.getName());
+        }
+        return found.getId();
+    }
+
+    public String getSupplierName(int id) {
+        synchronized (suppliers) {
+            ensureSuppliers();
+            return suppliers.nameById.get(id);
+        }
+    }
+
+    /** Drop the categories; call after inserting, renaming or deleting one */
+    public void invalidateCategories() {
+        synchronized (categories) {
+            categories.clear();
+        }
+    }
+
+    /** Drop the suppliers; call after inserting, renaming or deleting one */
+    public void invalidateSuppliers() {
+        synchronized (suppliers) {
+            suppliers.clear();
+        }
+    }
+
+    // Callers hold the Names lock. Empty results are not kept: the DAOs also return them when a query fails.
+    private void ensureCategories() {
+        if (categories.loaded) return;
+        for (Category c : categoryDAO.findAll()) {
+            categories.add(c.getId(), c.getName());
+        }
+        categories.sort();
+        categories.loaded = !categories.nameById.isEmpty();
+    }
+
+    private void ensureSuppliers() {
+        if (suppliers.loaded) return;
+        for (Supplier s : supplierDAO.findAll()) {
+            suppliers.add(s.getId(), s.getName());
+        }
+        suppliers.sort();
+        suppliers.loaded = !suppliers.nameById.isEmpty();
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
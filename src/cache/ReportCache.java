@@ -0,0 +1,167 @@
+package cache;
+
+import app.SalesSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Results of report queries keyed by report type, date range and filter.
+ *
+ * Sales are only ever added, so a result stays valid until a sale is recorded
+ * inside its range: {@link #saleRecorded(LocalDateTime)} (called when a sale is
+ * committed) drops exactly the entries whose range contains the sale's date.
+ * Past periods therefore stay cached until evicted, while a range that reaches
+ * today is dropped on each sale. Because registers on other machines write to
+ * the same database without telling this process, entries for ranges that are
+ * still open also expire after {@value #OPEN_RANGE_TTL_MS} ms.
+ *
+ * At most {@value #MAX_ENTRIES} results are kept, least recently used evicted
+ * first. Empty results are not cached, since the DAOs also return them when a
+ * query fails.
+ */
+public class ReportCache {
+
+    private static final ReportCache INSTANCE = new ReportCache();
+
+    private static final int MAX_ENTRIES = 256;
+    private static final long OPEN_RANGE_TTL_MS = 60_000;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > MAX_ENTRIES) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private static final class Key {
+        final String type;
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final String filter;
+
+        Key(String type, LocalDateTime start, LocalDateTime end, String filter) {
+            this.type = type;
+            this.start = start;
+            this.end = end;
+            this.filter = filter;
+        }
+
+        boolean contains(LocalDateTime date) {
+            return (start == null || !date.isBefore(start)) && (end == null || date.isBefore(end));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return type.equals(k.type) && Objects.equals(start, k.start)
+                    && Objects.equals(end, k.end) && Objects.equals(filter, k.filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, start, end, filter);
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long expiresAt; // Long.MAX_VALUE for closed ranges
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private ReportCache() {}
+
+    public static ReportCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The cached result for this report, or the result of {@code query}, which
+     * is then cached. Null bounds mean an open-ended range; filter may be null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String type, LocalDateTime start, LocalDateTime end, String filter, Callable<T> query)
+            throws Exception {
+        Key key = new Key(type, start, end, filter);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                hits.incrementAndGet();
+                return (T) entry.value;
+            }
+        }
+        misses.incrementAndGet();
+        T value = query.call();
+        if (isCacheable(value)) {
+            boolean open = end == null || end.isAfter(LocalDateTime.now());
+            long expiresAt = open ? now + OPEN_RANGE_TTL_MS : Long.MAX_VALUE;
+            synchronized (entries) {
+                entries.put(key, new Entry(value, expiresAt));
+            }
+        }
+        return value;
+    }
+
+    /** A sale dated {@code saleDate} was committed; drop every result it changes */
+    public void saleRecorded(LocalDateTime saleDate) {
+        synchronized (entries) {
+            Iterator<Key> it = entries.keySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().contains(saleDate)) {
+                    it.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public long getInvalidations() { return invalidations.get(); }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total > 0 ? (double) hits.get() / total : 0.0;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static boolean isCacheable(Object value) {
+        if (value == null) return false;
+        if (value instanceof Collection) return !((Collection<?>) value).isEmpty();
+        if (value instanceof SalesSummary) return ((SalesSummary) value).getTransactionCount() > 0;
+        return true;
+    }
+}
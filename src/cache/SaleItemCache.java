@@ -0,0 +1,94 @@
+package cache;
+
+import app.SaleItem;
+import dao.SaleItemDAO;
+import dao.impl.SaleItemDAOImpl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Line items of recently viewed sales, least recently used evicted first.
+ *
+ * A sale's items never change once it is written, so entries are never stale.
+ * The sales history screens {@link #prefetch(Collection) prefetch} the items of
+ * each page they load with one bulk query, so opening a sale's details is
+ * normally answered from memory. A failed query caches nothing; {@link #get}
+ * throws it, while a failed prefetch is only logged, since the details screen
+ * will ask again.
+ */
+public class SaleItemCache {
+
+    private static final SaleItemCache INSTANCE = new SaleItemCache();
+
+    private static final int MAX_SALES = 2_000;
+
+    private final SaleItemDAO saleItemDAO = new SaleItemDAOImpl();
+    private final LinkedHashMap<Integer, List<SaleItem>> bySaleId =
+            new LinkedHashMap<Integer, List<SaleItem>>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, List<SaleItem>> eldest) {
+                    return size() > MAX_SALES;
+                }
+            };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private SaleItemCache() {}
+
+    public static SaleItemCache getInstance() {
+        return INSTANCE;
+    }
+
+    /** Items of one sale, from memory when possible */
+    public List<SaleItem> get(int saleId) throws SQLException {
+        synchronized (bySaleId) {
+            List<SaleItem> cached = bySaleId.get(saleId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        List<SaleItem> items = saleItemDAO.findBySaleId(saleId);
+        put(saleId, items);
+        return items;
+    }
+
+    /** Load the items of every listed sale not cached yet, in one round trip per 100 sales */
+    public void prefetch(Collection<Integer> saleIds) {
+        List<Integer> missing = new ArrayList<>();
+        synchronized (bySaleId) {
+            for (int saleId : saleIds) {
+                // containsKey does not count as an access, so prefetching does not reorder the LRU
+                if (!bySaleId.containsKey(saleId)) {
+                    missing.add(saleId);
+                }
+            }
+        }
+        if (missing.isEmpty()) return;
+        try {
+            for (Map.Entry<Integer, List<SaleItem>> e : saleItemDAO.findBySaleIds(missing).entrySet()) {
+                put(e.getKey(), e.getValue());
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    private void put(int saleId, List<SaleItem> items) {
+        if (items == null) return;
+        synchronized (bySaleId) {
+            bySaleId.put(saleId, Collections.unmodifiableList(items));
+        }
+    }
+}
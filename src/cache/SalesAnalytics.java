@@ -0,0 +1,261 @@
+package cache;
+
+import database.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented in-memory copy of the sales headers for interactive analytics.
+ *
+ * Each sale is one index into parallel primitive arrays: its wall-clock time in
+ * epoch seconds, its amount in cents, its item count and a dictionary id for
+ * its cashier. A group-by is then a single pass over those arrays with no
+ * objects, boxing or hashing, which takes milliseconds for millions of sales.
+ *
+ * Sales are never updated once written, so {@link #refresh()} only has to
+ * append rows with an id above the highest one already loaded; the first call
+ * streams the whole table once. With several registers a sale can commit after
+ * one with a higher id was already read, so ids skipped among the last
+ * {@value #RECHECK_WINDOW} are looked for again on every refresh.
+ */
+public class SalesAnalytics {
+
+    private static final SalesAnalytics INSTANCE = new SalesAnalytics();
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    // How far below the highest loaded id a skipped id is still expected to commit
+    private static final int RECHECK_WINDOW = 100;
+
+    public static final int DAYS = 7;    // Monday = 0
+    public static final int HOURS = 24;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private long[] seconds = new long[INITIAL_CAPACITY];
+    private long[] cents = new long[INITIAL_CAPACITY];
+    private int[] items = new int[INITIAL_CAPACITY];
+    private int[] cashiers = new int[INITIAL_CAPACITY];
+    private int size;
+    private int lastId;
+    private final TreeSet<Integer> missingIds = new TreeSet<>(); // guarded by refreshLock
+
+    private final List<String> cashierNames = new ArrayList<>();
+    private final Map<String, Integer> cashierIds = new HashMap<>();
+
+    /** Sales aggregated by weekday and hour of day, plus totals */
+    public static class Heatmap {
+        private final long[] counts = new long[DAYS * HOURS];
+        private final long[] cents = new long[DAYS * HOURS];
+        private final long[] items = new long[DAYS * HOURS];
+        private long saleCount;
+        private long totalCents;
+        private long totalItems;
+        private long largestCents;
+        private int scanned;
+        private long computeNanos;
+
+        public long getCount(int day, int hour) { return counts[day * HOURS + hour]; }
+        public double getRevenue(int day, int hour) { return cents[day * HOURS + hour] / 100.0; }
+        public long getItems(int day, int hour) { return items[day * HOURS + hour]; }
+
+        public long getSaleCount() { return saleCount; }
+        public double getTotalAmount() { return totalCents / 100.0; }
+        public long getTotalItems() { return totalItems; }
+        public double getLargestSale() { return largestCents / 100.0; }
+        public int getScanned() { return scanned; }
+        public double getComputeMillis() { return computeNanos / 1_000_000.0; }
+    }
+
+    private SalesAnalytics() {}
+
+    public static SalesAnalytics getInstance() {
+        return INSTANCE;
+    }
+
+    /** Load sales recorded since the last call; returns how many were added */
+    public int refresh() throws SQLException {
+        refreshLock.lock();
+        try {
+            int from = missingIds.isEmpty() ? lastId : Math.min(lastId, missingIds.first() - 1);
+            int expected = lastId + 1; // next id if none were skipped
+            TreeSet<Integer> missing = new TreeSet<>(missingIds); // kept only if the scan succeeds
+            long[] newSeconds = new long[INITIAL_CAPACITY];
+            long[] newCents = new long[INITIAL_CAPACITY];
+            int[] newItems = new int[INITIAL_CAPACITY];
+            String[] newCashiers = new String[INITIAL_CAPACITY];
+            int count = 0;
+            int maxId = lastId;
+
+            try (Connection con = Database.connect()) {
+                if (con == null) {
+                    throw new SQLException("Database connection failed!");
+                }
+                try (PreparedStatement ps = con.prepareStatement(
+                        "SELECT id, saleDate, CAST(ROUND(totalAmount * 100) AS SIGNED), totalItems, cashierEmail " +
+                        "FROM sales WHERE id > ? ORDER BY id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    ps.setFetchSize(Database.STREAMING_FETCH_SIZE);
+                    ps.setInt(1, from);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            if (count == newSeconds.length) {
+                                int grown = count * 2;
+                                newSeconds = Arrays.copyOf(newSeconds, grown);
+                                newCents = Arrays.copyOf(newCents, grown);
+                                newItems = Arrays.copyOf(newItems, grown);
+                                newCashiers = Arrays.copyOf(newCashiers, grown);
+                            }
+                            int id = rs.getInt(1);
+                            if (id <= lastId) {
+                                // Below the loaded range: only a sale that committed late is new
+                                if (!missing.remove(id)) continue;
+                            } else {
+                                for (int skipped = Math.max(expected, id - RECHECK_WINDOW); skipped < id; skipped++) {
+                                    missing.add(skipped);
+                                }
+                                expected = id + 1;
+                                maxId = id;
+                            }
+                            newSeconds[count] = rs.getTimestamp(2).toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+                            newCents[count] = rs.getLong(3);
+                            newItems[count] = rs.getInt(4);
+                            newCashiers[count] = rs.getString(5);
+                            count++;
+                        }
+                    }
+                }
+            }
+            // Older gaps are rolled-back or failed inserts, not sales still to come
+            missing.headSet(maxId - RECHECK_WINDOW, true).clear();
+            missingIds.clear();
+            missingIds.addAll(missing);
+            if (count == 0) return 0;
+
+            lock.writeLock().lock();
+            try {
+                ensureCapacity(size + count);
+                System.arraycopy(newSeconds, 0, seconds, size, count);
+                System.arraycopy(newCents, 0, cents, size, count);
+                System.arraycopy(newItems, 0, items, size, count);
+                for (int i = 0; i < count; i++) {
+                    cashiers[size + i] = cashierId(newCashiers[i]);
+                }
+                size += count;
+                lastId = maxId;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return count;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Aggregate sales with {@code start <= saleDate < end} by weekday and hour;
+     * null bounds are open. {@code cashierEmail} null means every cashier.
+     */
+    public Heatmap heatmap(LocalDateTime start, LocalDateTime end, String cashierEmail) {
+        long from = start != null ? start.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+        long to = end != null ? end.toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+        Heatmap map = new Heatmap();
+        long begin = System.nanoTime();
+
+        lock.readLock().lock();
+        try {
+            int onlyCashier = -1;
+            if (cashierEmail != null) {
+                Integer id = cashierIds.get(cashierEmail);
+                if (id == null) return map;
+                onlyCashier = id;
+            }
+            long[] sec = seconds;
+            long[] amt = cents;
+            int[] qty = items;
+            int[] who = cashiers;
+            long[] cellCounts = map.counts;
+            long[] cellCents = map.cents;
+            long[] cellItems = map.items;
+            long largest = 0;
+            int n = size;
+            for (int i = 0; i < n; i++) {
+                long t = sec[i];
+                if (t < from || t >= to) continue;
+                if (onlyCashier >= 0 && who[i] != onlyCashier) continue;
+                long days = Math.floorDiv(t, SECONDS_PER_DAY);
+                int day = Math.floorMod(days + 3, DAYS); // 1970-01-01 was a Thursday
+                int hour = (int) ((t - days * SECONDS_PER_DAY) / 3600);
+                int cell = day * HOURS + hour;
+                cellCounts[cell]++;
+                cellCents[cell] += amt[i];
+                cellItems[cell] += qty[i];
+                if (amt[i] > largest) largest = amt[i];
+            }
+            for (int cell = 0; cell < DAYS * HOURS; cell++) {
+                map.saleCount += cellCounts[cell];
+                map.totalCents += cellCents[cell];
+                map.totalItems += cellItems[cell];
+            }
+            map.largestCents = largest;
+            map.scanned = n;
+        } finally {
+            lock.readLock().unlock();
+        }
+        map.computeNanos = System.nanoTime() - begin;
+        return map;
+    }
+
+    /** Every cashier seen so far, in first-seen order */
+    public List<String> getCashiers() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(cashierNames);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int cashierId(String email) {
+        String key = email != null ? email : "";
+        Integer id = cashierIds.get(key);
+        if (id == null) {
+            id = cashierNames.size();
+            cashierNames.add(key);
+            cashierIds.put(key, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= seconds.length) return;
+        int capacity = Math.max(needed, seconds.length * 2);
+        seconds = Arrays.copyOf(seconds, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+        items = Arrays.copyOf(items, capacity);
+        cashiers = Arrays.copyOf(cashiers, capacity);
+    }
+}
@@ -0,0 +1,196 @@
+package cache;
+
+import app.Product;
+import app.ProductBundle;
+import app.ProductModifier;
+import app.ProductVariant;
+import dao.ProductDAO;
+import dao.ProductVariantDAO;
+import dao.impl.ProductBundleDAOImpl;
+import dao.impl.ProductDAOImpl;
+import dao.impl.ProductModifierDAOImpl;
+import dao.impl.ProductVariantDAOImpl;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves a scanned barcode or SKU to a product or variant with hash lookups.
+ *
+ * Product codes come from {@link ProductCatalog}; variant codes, and which
+ * products have variants, modifiers or bundles to choose from, are loaded here
+ * in one pass and dropped by {@link #invalidate()} whenever those tables are
+ * edited; a load that overlaps an invalidation is discarded rather than kept.
+ * A code that is not in memory falls back to the DAO lookups, so a
+ * product or variant added by another terminal still scans.
+ */
+public class ScanIndex {
+
+    private static final ScanIndex INSTANCE = new ScanIndex();
+
+    private final ProductCatalog catalog = ProductCatalog.getInstance();
+    private final ProductDAO productDAO = new ProductDAOImpl();
+    private final ProductVariantDAO variantDAO = new ProductVariantDAOImpl();
+
+    private final Map<String, ProductVariant> variantsByBarcode = new HashMap<>();
+    private final Map<String, ProductVariant> variantsBySku = new HashMap<>();
+    private final Map<Integer, ProductVariant> variantsById = new HashMap<>();
+    private final Set<Integer> withVariants = new HashSet<>();
+    private final Set<Integer> withModifiersOrBundles = new HashSet<>();
+    private boolean loaded;
+    private long generation;    // bumped by invalidate()
+
+    private ScanIndex() {}
+
+    public static ScanIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /** What a scanned code stands for: a product, plus the variant when a variant code was scanned */
+    public static final class Scan {
+        private final Product product;
+        private final ProductVariant variant;
+
+        Scan(Product product, ProductVariant variant) {
+            this.product = product;
+            this.variant = variant;
+        }
+
+        public Product getProduct() { return product; }
+        public ProductVariant getVariant() { return variant; }
+    }
+
+    /**
+     * Look a barcode or SKU up in memory only; barcodes are tried first. Returns
+     * null for a code that is not indexed or while the index is still loading.
+     */
+    public Scan find(String code) {
+        if (code == null || code.trim().isEmpty()) return null;
+        synchronized (this) {
+            if (!loaded) return null;
+        }
+        String c = code.trim();
+        Product product = catalog.getByBarcode(c);
+        if (product != null) return new Scan(product, null);
+        ProductVariant variant = variantByCode(variantsByBarcode, c);
+        if (variant != null) return forVariant(variant);
+        product = catalog.getBySku(c);
+        if (product != null) return new Scan(product, null);
+        variant = variantByCode(variantsBySku, c);
+        return variant != null ? forVariant(variant) : null;
+    }
+
+    /**
+     * Like {@link #find(String)}, but loads the index if needed and falls back to
+     * the database for codes it does not know. Blocks on I/O; keep it off the FX thread.
+     */
+    public Scan resolve(String code) throws SQLException {
+        if (code == null || code.trim().isEmpty()) return null;
+        catalog.ensureLoaded();
+        ensureLoaded();
+        Scan scan = find(code);
+        return scan != null ? scan : resolveFromDatabase(code.trim());
+    }
+
+    /**
+     * True when the cashier still has to pick something for this scan: a
+     * variant (when a product code was scanned for a product that has them),
+     * modifiers or bundle contents.
+     */
+    public synchronized boolean needsChoices(Scan scan) {
+        int productId = scan.getProduct().getId();
+        if (withModifiersOrBundles.contains(productId)) return true;
+        return scan.getVariant() == null && withVariants.contains(productId);
+    }
+
+    /** Apply a committed stock movement to a cached variant */
+    public synchronized void adjustVariantStock(int variantId, int delta) {
+        ProductVariant v = variantsById.get(variantId);
+        if (v != null) {
+            v.setStock(v.getStock() + delta);
+        }
+    }
+
+    /** Warm the index so the first scan does not wait on the database */
+    public void preload() throws SQLException {
+        catalog.ensureLoaded();
+        ensureLoaded();
+    }
+
+    /** Drop variant codes and configuration flags; call after editing variants, modifiers or bundles */
+    public synchronized void invalidate() {
+        loaded = false;
+        generation++;
+        variantsByBarcode.clear();
+        variantsBySku.clear();
+        variantsById.clear();
+        withVariants.clear();
+        withModifiersOrBundles.clear();
+    }
+
+    private synchronized ProductVariant variantByCode(Map<String, ProductVariant> codes, String code) {
+        return codes.get(code);
+    }
+
+    private Scan forVariant(ProductVariant variant) {
+        Product product = catalog.getById(variant.getProductId());
+        return product != null ? new Scan(product, variant) : null;
+    }
+
+    private Scan resolveFromDatabase(String code) {
+        Product product = productDAO.findByBarcode(code);
+        if (product == null) product = productDAO.findBySku(code);
+        if (product != null) {
+            catalog.refresh(product.getId());
+            Product cached = catalog.getById(product.getId());
+            return new Scan(cached != null ? cached : product, null);
+        }
+
+        ProductVariant variant = variantDAO.findByBarcode(code);
+        if (variant == null) variant = variantDAO.findBySku(code);
+        if (variant == null || !variant.isIsActive()) return null;
+        synchronized (this) {
+            addVariant(variant);
+        }
+        catalog.refresh(variant.getProductId());
+        return forVariant(variant);
+    }
+
+    private void ensureLoaded() {
+        long loadGeneration;
+        synchronized (this) {
+            if (loaded) return;
+            loadGeneration = generation;
+        }
+        // Query outside the lock so needsChoices() on the FX thread is not held up by the load
+        List<ProductVariant> variants = variantDAO.findAll();
+        List<ProductModifier> modifiers = new ProductModifierDAOImpl().findAll();
+        List<ProductBundle> bundles = new ProductBundleDAOImpl().findAll();
+        synchronized (this) {
+            // An edit during the queries may not be in what they read; the next lookup loads again
+            if (loaded || loadGeneration != generation) return;
+            for (ProductVariant v : variants) {
+                addVariant(v);
+            }
+            for (ProductModifier m : modifiers) {
+                withModifiersOrBundles.add(m.getProductId());
+            }
+            for (ProductBundle b : bundles) {
+                withModifiersOrBundles.add(b.getBundleProductId());
+            }
+            loaded = true;
+        }
+    }
+
+    private void addVariant(ProductVariant v) {
+        withVariants.add(v.getProductId());
+        if (!v.isIsActive()) return;
+        variantsById.put(v.getId(), v);
+        if (v.getBarcode() != null && !v.getBarcode().isEmpty()) variantsByBarcode.put(v.getBarcode(), v);
+        if (v.getSku() != null && !v.getSku().isEmpty()) variantsBySku.put(v.getSku(), v);
+    }
+}
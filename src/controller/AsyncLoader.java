@@ -0,0 +1,64 @@
+package controller;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs a query on a background virtual thread and hands the result to the
+ * JavaFX application thread in a single update.
+ *
+ * Each loader tracks only its latest request: starting a new load supersedes
+ * the one in flight, and a superseded result is dropped instead of being
+ * applied over newer data. A running JDBC call is not interrupted (that would
+ * close the pooled socket); it simply finishes and is discarded.
+ */
+public class AsyncLoader<T> {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong generation = new AtomicLong();
+    private Future<?> inFlight;
+
+    /**
+     * Run {@code query} in the background; {@code onSuccess} or {@code onError} is
+     * called on the FX thread unless a newer load has been started meanwhile.
+     */
+    public synchronized void load(Callable<T> query, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        long ticket = generation.incrementAndGet();
+        if (inFlight != null) {
+            inFlight.cancel(false); // drops it if it has not started yet
+        }
+        inFlight = EXECUTOR.submit(() -> {
+            try {
+                T result = query.call();
+                Platform.runLater(() -> {
+                    if (generation.get() == ticket) {
+                        onSuccess.accept(result);
+                    }
+                });
+            } catch (Exception e) {
+                e.printStackTrace();
+                Platform.runLater(() -> {
+                    if (generation.get() == ticket) {
+                        onError.accept(e);
+                    }
+                });
+            }
+        });
+    }
+
+    /** Discard the result of the load in flight, if any */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (inFlight != null) {
+            inFlight.cancel(false);
+            inFlight = null;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package controller;
 
 import app.Main;
+import app.ShiftSummary;
 import app.UserSession;
+import dao.SalesDAO;
+import dao.impl.SalesDAOImpl;
+import service.CheckoutService;
+import service.SaleJournal;
+import service.SaleWriter;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -10,7 +16,10 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
 import javafx.scene.layout.AnchorPane;
 
+import java.io.IOException;
 import java.net.URL;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ResourceBundle;
 
 public class CashierDashboardController implements Initializable {
@@ -21,6 +30,9 @@ public class CashierDashboardController implements Initializable {
     @FXML
     private AnchorPane centerPane;
 
+    private final SalesDAO salesDAO = new SalesDAOImpl();
+    private final AsyncLoader<ShiftSummary> shiftLoader = new AsyncLoader<>();
+
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         // Check if user is authorized (cashier only)
@@ -80,8 +92,58 @@ public class CashierDashboardController implements Initializable {
         }
     }
 
+    /** Totals of the sales this cashier has rung up since logging in */
+    @FXML
+    private void showShiftSummary() {
+        String email = UserSession.getCurrentUserEmail();
+        LocalDateTime shiftStart = UserSession.getLoginTime();
+        if (email == null || shiftStart == null) return;
+        LocalDateTime now = LocalDateTime.now();
+        shiftLoader.load(
+            () -> salesDAO.getShiftSummary(email, shiftStart, now.plusSeconds(1)),
+            summary -> showAlert(Alert.AlertType.INFORMATION, "Shift Summary", formatShiftSummary(summary)),
+            error -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load the shift summary!")
+        );
+    }
+
+    private String formatShiftSummary(ShiftSummary summary) {
+        DateTimeFormatter time = DateTimeFormatter.ofPattern("HH:mm");
+        StringBuilder text = new StringBuilder();
+        text.append("Cashier: ").append(summary.getCashierEmail()).append("\n");
+        text.append("Shift started: ").append(summary.getPeriodStart().format(time)).append("\n\n");
+        text.append("Transactions: ").append(summary.getTransactionCount()).append("\n");
+        text.append("Items sold: ").append(summary.getTotalItems()).append("\n");
+        text.append(String.format("Total sales: ₱%.2f%n", summary.getTotalAmount()));
+        text.append(String.format("Average sale: ₱%.2f%n", summary.getAverageSale()));
+        if (summary.getFirstSale() != null) {
+            text.append("First sale: ").append(summary.getFirstSale().format(time)).append("\n");
+            text.append("Last sale: ").append(summary.getLastSale().format(time)).append("\n");
+        }
+        // Checkout latency since the application started, all registers in this process
+        if (CheckoutService.getCommitCount() > 0) {
+            text.append(String.format("%nCheckout wait: %.1f ms average, %.1f ms longest (%d sales)%n",
+                    CheckoutService.getAverageCommitMillis(), CheckoutService.getMaxCommitMillis(),
+                    CheckoutService.getCommitCount()));
+        }
+        if (SaleWriter.getWriteCount() > 0) {
+            text.append(String.format("Database write: %.1f ms average, %.1f ms longest (%d sales)%n",
+                    SaleWriter.getAverageWriteMillis(), SaleWriter.getMaxWriteMillis(),
+                    SaleWriter.getWriteCount()));
+        }
+        try {
+            int pending = SaleJournal.getInstance().getPendingCount();
+            if (pending > 0) {
+                text.append("\n").append(pending).append(" sale(s) are still being saved and not counted yet.");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return text.toString();
+    }
+
     @FXML
     private void logout() {
+        shiftLoader.cancel();
         UserSession.clear();
         try {
             Main.setRoot("Login");
@@ -1,6 +1,8 @@
 package controller;
 
 import app.Category;
+import cache.ProductCatalog;
+import cache.ReferenceData;
 import database.Database;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -59,6 +61,7 @@ public class CategoryController {
             PreparedStatement ps = con.prepareStatement("INSERT INTO Category(name) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, name);
             ps.executeUpdate();
+            ReferenceData.getInstance().invalidateCategories();
 
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) categories.add(new Category(rs.getInt(1), name));
@@ -86,6 +89,8 @@ public class CategoryController {
             ps.setString(1, name);
             ps.setInt(2, c.getId());
             ps.executeUpdate();
+            ReferenceData.getInstance().invalidateCategories();
+            ProductCatalog.getInstance().invalidate(); // cached products show the category name
 
             c.setName(name);
             tableCategories.refresh();
@@ -105,6 +110,8 @@ public class CategoryController {
             PreparedStatement ps = con.prepareStatement("DELETE FROM Category WHERE id=?");
             ps.setInt(1, c.getId());
             ps.executeUpdate();
+            ReferenceData.getInstance().invalidateCategories();
+            ProductCatalog.getInstance().invalidate();
 
             categories.remove(c);
             if (productController != null) productController.loadCategories();
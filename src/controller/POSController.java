@@ -1,11 +1,22 @@
 package controller;
 
 import app.CartItem;
+import app.Category;
 import app.Main;
+import app.Money;
 import app.Product;
+import app.ProductBundle;
+import app.ProductConfiguration;
+import app.ProductModifierOption;
+import app.ProductVariant;
 import app.UserSession;
 import controller.ProductSelectionDialog;
-import database.Database;
+import cache.ProductCatalog;
+import cache.ProductConfigurationCache;
+import cache.ReferenceData;
+import cache.ScanIndex;
+import service.CartPricing;
+import service.CheckoutService;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -18,7 +29,10 @@ import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.net.URL;
 import java.sql.*;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 import javafx.scene.layout.HBox;
 
@@ -50,15 +64,26 @@ public class POSController implements Initializable {
 
     private ObservableList<Product> products = FXCollections.observableArrayList();
     private ObservableList<CartItem> cartItems = FXCollections.observableArrayList();
-    private double currentTotalAmount = 0.0; // total after cart-level discount
-    private double currentDiscountPercent = 0.0;
+    private final CartPricing pricing = new CartPricing(); // running totals, kept in step with cartItems
+    private final Map<CartItem.Key, CartItem> cartIndex = new HashMap<>(); // each cart line by configuration
+
+    // Browse, search and category filter are served from memory; only the first load hits MySQL
+    private final ProductCatalog catalog = ProductCatalog.getInstance();
+    private final ScanIndex scanIndex = ScanIndex.getInstance();
+    private final ProductConfigurationCache configurations = ProductConfigurationCache.getInstance();
+    private final CheckoutService checkoutService = new CheckoutService();
+    // Shared by browse, search and category filter so only the latest request updates the table
+    private final AsyncLoader<List<Product>> productLoader = new AsyncLoader<>();
+    private final AsyncLoader<Void> scanWarmup = new AsyncLoader<>();
+    private final AsyncLoader<ScanIndex.Scan> scanLoader = new AsyncLoader<>();
+    private final AsyncLoader<Void> configurationWarmup = new AsyncLoader<>();
+    private final AsyncLoader<ProductConfiguration> configurationLoader = new AsyncLoader<>();
 
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         setupProductTable();
         setupCartTable();
         loadProducts();
-        createSalesTableIfNotExists();
         loadCategories(); // Added this
         
         // Initialize cash/change display
@@ -70,8 +95,19 @@ public class POSController implements Initializable {
         }
         if (discountField != null) {
             discountField.setText("0");
-            discountField.textProperty().addListener((obs, oldVal, newVal) -> updateTotals());
+            discountField.textProperty().addListener((obs, oldVal, newVal) -> {
+                pricing.setDiscountPercent(parseDiscount(newVal));
+                updateTotals();
+            });
         }
+        // Search as the cashier types; stale searches are superseded by newer ones
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchProducts());
+        // Load barcode/SKU lookups in the background so the first scan is instant
+        scanWarmup.load(() -> { scanIndex.preload(); return null; }, ignored -> {},
+            e -> showAlert("Error loading barcodes: " + e.getMessage()));
+        // Likewise every product's variants, modifiers and bundles, so the options dialog opens at once
+        configurationWarmup.load(() -> { configurations.preload(); return null; }, ignored -> {},
+            e -> System.err.println("Product options not preloaded: " + e.getMessage()));
         
         // Add double-click to add product to cart
         productTable.setRowFactory(tv -> {
@@ -214,7 +250,7 @@ public class POSController implements Initializable {
                 btnMinus.setOnAction(e -> {
                     CartItem item = getTableView().getItems().get(getIndex());
                     if (item.getQuantity() > 1) {
-                        item.setQuantity(item.getQuantity() - 1);
+                        pricing.setQuantity(item, item.getQuantity() - 1);
                         updateTotals();
                         getTableView().refresh();
                     }
@@ -224,7 +260,7 @@ public class POSController implements Initializable {
                     CartItem item = getTableView().getItems().get(getIndex());
                     int maxStock = item.getStock();
                     if (item.getQuantity() < maxStock) {
-                        item.setQuantity(item.getQuantity() + 1);
+                        pricing.setQuantity(item, item.getQuantity() + 1);
                         updateTotals();
                         getTableView().refresh();
                     } else {
@@ -250,7 +286,7 @@ public class POSController implements Initializable {
                             return;
                         }
                         
-                        item.setQuantity(newQty);
+                        pricing.setQuantity(item, newQty);
                         updateTotals();
                         getTableView().refresh();
                     } catch (NumberFormatException ex) {
@@ -277,7 +313,7 @@ public class POSController implements Initializable {
                                 return;
                             }
                             
-                            item.setQuantity(newQty);
+                            pricing.setQuantity(item, newQty);
                             updateTotals();
                             getTableView().refresh();
                         } catch (NumberFormatException ex) {
@@ -332,43 +368,8 @@ public class POSController implements Initializable {
     }
 
     private void loadProducts() {
-        products.clear();
-        try (Connection con = Database.connect()) {
-            if (con == null) {
-                showAlert("Database connection failed!");
-                return;
-            }
-            
-            String query = "SELECT p.id, p.name, p.description, p.price, p.currentStock, " +
-                    "c.name AS category, s.name AS supplier " +
-                    "FROM Product p " +
-                    "LEFT JOIN Category c ON p.categoryId = c.id " +
-                    "LEFT JOIN Supplier s ON p.supplierId = s.id " +
-                    "WHERE p.isActive = true AND p.currentStock > 0 " +
-                    "ORDER BY p.name";
-            
-            ResultSet rs = con.createStatement().executeQuery(query);
-            
-            while (rs.next()) {
-                Product product = new Product();
-                product.setId(rs.getInt("id"));
-                product.setName(rs.getString("name"));
-                product.setDescription(rs.getString("description"));
-                product.setPrice(rs.getDouble("price"));
-                product.setCurrentStock(rs.getInt("currentStock"));
-                product.setCategoryName(rs.getString("category"));
-                product.setSupplierName(rs.getString("supplier"));
-                products.add(product);
-            }
-            
-            // Update product count
-            if (productCountLabel != null) {
-                productCountLabel.setText("Products: " + products.size());
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Error loading products: " + e.getMessage());
-        }
+        productLoader.load(catalog::getAvailable, this::showProducts,
+            e -> showAlert("Error loading products: " + e.getMessage()));
     }
 
     @FXML
@@ -380,49 +381,17 @@ public class POSController implements Initializable {
             return;
         }
         
-        products.clear();
-        try (Connection con = Database.connect()) {
-            if (con == null) {
-                showAlert("Database connection failed!");
-                return;
-            }
-            
-            String query = "SELECT p.id, p.name, p.description, p.price, p.currentStock, " +
-                    "c.name AS category, s.name AS supplier " +
-                    "FROM Product p " +
-                    "LEFT JOIN Category c ON p.categoryId = c.id " +
-                    "LEFT JOIN Supplier s ON p.supplierId = s.id " +
-                    "WHERE p.isActive = true AND p.currentStock > 0 " +
-                    "AND (LOWER(p.name) LIKE ? OR LOWER(p.description) LIKE ? OR LOWER(p.sku) LIKE ?) " +
-                    "ORDER BY p.name";
-            
-            PreparedStatement ps = con.prepareStatement(query);
-            String searchPattern = "%" + searchTerm + "%";
-            ps.setString(1, searchPattern);
-            ps.setString(2, searchPattern);
-            ps.setString(3, searchPattern);
-            
-            ResultSet rs = ps.executeQuery();
-            
-            while (rs.next()) {
-                Product product = new Product();
-                product.setId(rs.getInt("id"));
-                product.setName(rs.getString("name"));
-                product.setDescription(rs.getString("description"));
-                product.setPrice(rs.getDouble("price"));
-                product.setCurrentStock(rs.getInt("currentStock"));
-                product.setCategoryName(rs.getString("category"));
-                product.setSupplierName(rs.getString("supplier"));
-                products.add(product);
-            }
-            
-            // Update product count
-            if (productCountLabel != null) {
-                productCountLabel.setText("Products: " + products.size());
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Error searching products: " + e.getMessage());
+        productLoader.load(() -> catalog.searchAvailable(searchTerm), this::showProducts,
+            e -> showAlert("Error searching products: " + e.getMessage()));
+    }
+
+    /** Swap a freshly loaded product list into the table in one update */
+    private void showProducts(List<Product> loaded) {
+        products.setAll(loaded);
+        
+        // Update product count
+        if (productCountLabel != null) {
+            productCountLabel.setText("Products: " + products.size());
         }
     }
 
@@ -442,64 +411,113 @@ public class POSController implements Initializable {
             return;
         }
         
-        // Show product selection dialog
-        ProductSelectionDialog dialog = new ProductSelectionDialog(product);
+        // Show product selection dialog, loading the product's options first unless they are cached
+        ProductConfiguration configuration = configurations.peek(product.getId());
+        if (configuration != null) {
+            showSelectionDialog(product, configuration);
+            return;
+        }
+        configurationLoader.load(() -> configurations.get(product.getId()),
+            loaded -> showSelectionDialog(product, loaded),
+            e -> showAlert("Error loading product options: " + e.getMessage()));
+    }
+
+    private void showSelectionDialog(Product product, ProductConfiguration configuration) {
+        ProductSelectionDialog dialog = new ProductSelectionDialog(product, configuration);
         ProductSelectionDialog.ProductSelectionResult result = dialog.showAndWait().orElse(null);
         
         if (result == null) {
             return; // User cancelled
         }
         
-        int quantity = result.getQuantity();
-        
-        // Check if product with same configuration already in cart
-        for (CartItem item : cartItems) {
-            boolean sameVariant = (item.getSelectedVariant() == null && result.getVariant() == null) ||
-                                  (item.getSelectedVariant() != null && result.getVariant() != null &&
-                                   item.getSelectedVariant().getId() == result.getVariant().getId());
-            
-            boolean sameModifiers = item.getSelectedModifiers().size() == result.getModifiers().size() &&
-                                  item.getSelectedModifiers().containsAll(result.getModifiers());
-            
-            boolean sameBundle = (item.getSelectedBundle() == null && result.getBundle() == null) ||
-                                (item.getSelectedBundle() != null && result.getBundle() != null &&
-                                 item.getSelectedBundle().getId() == result.getBundle().getId());
-            
-            if (item.getProduct().getId() == product.getId() && sameVariant && sameModifiers && sameBundle) {
-                // Update quantity if adding same product with same configuration
-                int newQuantity = item.getQuantity() + quantity;
-                int availableStock = result.getVariant() != null ? result.getVariant().getStock() : product.getCurrentStock();
-                if (newQuantity > availableStock) {
-                    showAlert("Cannot add more! Available stock: " + availableStock);
-                    return;
+        addLine(product, result.getVariant(), result.getModifiers(), result.getBundle(), result.getQuantity());
+    }
+
+    /**
+     * Scanner input: barcode readers type the code into the search field and
+     * press Enter. A known barcode or SKU goes straight into the cart unless the
+     * product still needs a variant, modifier or bundle choice; anything else is
+     * treated as a search.
+     */
+    @FXML
+    private void scanCode() {
+        String code = searchField.getText().trim();
+        if (code.isEmpty()) return;
+        ScanIndex.Scan scan = scanIndex.find(code);
+        if (scan != null) {
+            addScanned(scan);
+            return;
+        }
+        // Not in memory (new product, or index still loading): ask the database off the FX thread
+        scanLoader.load(() -> scanIndex.resolve(code), resolved -> {
+                if (resolved != null) {
+                    addScanned(resolved);
+                } else {
+                    searchProducts();
                 }
-                item.setQuantity(newQuantity);
-                updateTotals();
+            },
+            e -> showAlert("Error looking up code: " + e.getMessage()));
+    }
+
+    private void addScanned(ScanIndex.Scan scan) {
+        searchField.clear();
+        
+        Product product = scan.getProduct();
+        if (!product.isIsActive()) {
+            showAlert(product.getName() + " is not available for sale.");
+            return;
+        }
+        if (scanIndex.needsChoices(scan)) {
+            addToCart(product);
+            return;
+        }
+        int stock = scan.getVariant() != null ? scan.getVariant().getStock() : product.getCurrentStock();
+        if (stock <= 0) {
+            showAlert("Product is out of stock!");
+            return;
+        }
+        addLine(product, scan.getVariant(), new ArrayList<>(), null, 1);
+    }
+
+    /** Add a configured line, merging it into an identical line already in the cart */
+    private void addLine(Product product, ProductVariant variant, List<ProductModifierOption> modifiers,
+                         ProductBundle bundle, int quantity) {
+        // Same configuration already in cart: add to that line
+        CartItem item = cartIndex.get(CartItem.keyOf(product, variant, modifiers, bundle));
+        if (item != null) {
+            int newQuantity = item.getQuantity() + quantity;
+            int availableStock = variant != null ? variant.getStock() : product.getCurrentStock();
+            if (newQuantity > availableStock) {
+                showAlert("Cannot add more! Available stock: " + availableStock);
                 return;
             }
+            pricing.setQuantity(item, newQuantity);
+            updateTotals();
+            return;
         }
         
         // Add new item to cart with selections
-        CartItem cartItem = new CartItem(
-            product,
-            result.getVariant(),
-            result.getModifiers(),
-            result.getBundle(),
-            quantity
-        );
+        CartItem cartItem = new CartItem(product, variant, modifiers, bundle, quantity);
         cartItems.add(cartItem);
+        cartIndex.put(cartItem.getKey(), cartItem);
+        pricing.lineAdded(cartItem);
         updateTotals();
     }
 
     @FXML
     private void removeFromCart(CartItem item) {
-        cartItems.remove(item);
+        if (cartItems.remove(item)) {
+            cartIndex.remove(item.getKey());
+            pricing.lineRemoved(item);
+        }
         updateTotals();
     }
 
     @FXML
     private void clearCart() {
         cartItems.clear();
+        cartIndex.clear();
+        pricing.clear();
         updateTotals();
         if (cashField != null) {
             cashField.clear();
@@ -509,37 +527,10 @@ public class POSController implements Initializable {
         }
     }
 
+    /** Show the running totals; every cart change has already been applied to {@link #pricing} */
     private void updateTotals() {
-        int totalItems = 0;
-        double grossTotal = 0.0;
-        
-        for (CartItem item : cartItems) {
-            totalItems += item.getQuantity();
-            grossTotal += item.getSubtotal();
-        }
-        
-        // Parse cart-level discount percentage
-        double discountPercent = 0.0;
-        if (discountField != null) {
-            String text = discountField.getText() != null ? discountField.getText().trim() : "";
-            if (!text.isEmpty()) {
-                try {
-                    discountPercent = Double.parseDouble(text);
-                } catch (NumberFormatException e) {
-                    discountPercent = 0.0;
-                }
-            }
-        }
-        if (discountPercent < 0) discountPercent = 0;
-        if (discountPercent > 100) discountPercent = 100;
-        currentDiscountPercent = discountPercent;
-
-        double discountAmount = grossTotal * (discountPercent / 100.0);
-        double netTotal = grossTotal - discountAmount;
-        currentTotalAmount = netTotal;
-        
-        totalItemsLabel.setText(String.valueOf(totalItems));
-        String formattedAmount = String.format("₱%.2f", netTotal);
+        totalItemsLabel.setText(String.valueOf(pricing.getTotalItems()));
+        String formattedAmount = Money.format(pricing.getNetCents());
         totalAmountLabel.setText(formattedAmount);
         
         // Update header total label if it exists
@@ -549,7 +540,7 @@ public class POSController implements Initializable {
         
         // Update cart item count label
         if (cartItemCountLabel != null) {
-            int itemCount = cartItems.size();
+            int itemCount = pricing.getLineCount();
             if (itemCount == 0) {
                 cartItemCountLabel.setText("Cart: 0 items");
             } else if (itemCount == 1) {
@@ -558,36 +549,38 @@ public class POSController implements Initializable {
                 cartItemCountLabel.setText("Cart: " + itemCount + " items");
             }
         }
-        
-        // Update product count label
-        if (productCountLabel != null) {
-            productCountLabel.setText("Products: " + products.size());
-        }
 
         // Update change display based on current cash input
         updateChangeDisplay();
     }
 
+    /** Cart-level discount percentage typed by the cashier; anything unparseable counts as none */
+    private static double parseDiscount(String text) {
+        String trimmed = text != null ? text.trim() : "";
+        if (trimmed.isEmpty()) return 0.0;
+        try {
+            return Double.parseDouble(trimmed);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
     private void updateChangeDisplay() {
         if (cashField == null || changeLabel == null) {
             return;
         }
         String cashText = cashField.getText() != null ? cashField.getText().trim() : "";
-        double cash = 0.0;
+        long cashCents = 0;
         if (!cashText.isEmpty()) {
             try {
-                cash = Double.parseDouble(cashText);
+                cashCents = Money.parseCents(cashText);
             } catch (NumberFormatException e) {
                 changeLabel.setText("₱0.00");
                 return;
             }
         }
-        double change = cash - currentTotalAmount;
-        if (change < 0) {
-            changeLabel.setText("₱0.00");
-        } else {
-            changeLabel.setText(String.format("₱%.2f", change));
-        }
+        long change = pricing.changeFor(cashCents);
+        changeLabel.setText(Money.format(Math.max(0, change)));
     }
 
     @FXML
@@ -598,8 +591,8 @@ public class POSController implements Initializable {
         }
 
         // Validate cash received and compute change
-        double cashReceived;
-        double totalAmountForPayment = currentTotalAmount;
+        long cashReceived;
+        long totalForPayment = pricing.getNetCents();
 
         if (cashField == null) {
             showAlert("Cash input field is not available.");
@@ -612,96 +605,46 @@ public class POSController implements Initializable {
             return;
         }
         try {
-            cashReceived = Double.parseDouble(cashText);
+            cashReceived = Money.parseCents(cashText);
         } catch (NumberFormatException e) {
             showAlert("Please enter a valid cash amount.");
             return;
         }
-        if (cashReceived < totalAmountForPayment) {
-            showAlert(String.format("Insufficient cash. Total is ₱%.2f, received ₱%.2f.", totalAmountForPayment, cashReceived));
+        long change = pricing.changeFor(cashReceived);
+        if (change < 0) {
+            showAlert("Insufficient cash. Total is " + Money.format(totalForPayment) + ", received "
+                    + Money.format(cashReceived) + ".");
             return;
         }
-        double change = cashReceived - totalAmountForPayment;
         
         String cashierEmail = UserSession.getCurrentUserEmail();
         if (cashierEmail == null || cashierEmail.isEmpty()) {
             cashierEmail = "guest"; // Fallback if no user session
         }
         
-        try (Connection con = Database.connect()) {
-            if (con == null) {
-                showAlert("Database connection failed!");
-                return;
+        try {
+            CheckoutService.Result sale = checkoutService.checkout(cartItems, Money.toAmount(totalForPayment), cashierEmail);
+            for (CartItem item : cartItems) {
+                catalog.adjustStock(item.getProductId(), -item.getQuantity());
+                if (item.getVariantId() >= 0) {
+                    scanIndex.adjustVariantStock(item.getVariantId(), -item.getQuantity());
+                    configurations.adjustVariantStock(item.getProductId(), item.getVariantId(), -item.getQuantity());
+                }
             }
             
-            con.setAutoCommit(false); // Start transaction
+            // Show success message
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Sale Completed");
+            alert.setHeaderText(null);
+            alert.setContentText(String.format(
+                "Sale completed successfully!\nTotal: %s\nDiscount: %.0f%%\nCash: %s\nChange: %s\nItems: %d\nSaved in %.0f ms",
+                Money.format(totalForPayment), pricing.getDiscountPercent(), Money.format(cashReceived),
+                Money.format(change), sale.getTotalItems(), sale.getCommitMillis()));
+            alert.showAndWait();
             
-            try {
-                // Calculate totals
-                int totalItems = 0;
-                for (CartItem item : cartItems) {
-                    totalItems += item.getQuantity();
-                }
-                double totalAmount = currentTotalAmount;
-                
-                // Insert sale record
-                String saleQuery = "INSERT INTO sales (saleDate, totalAmount, totalItems, cashierEmail) VALUES (?, ?, ?, ?)";
-                PreparedStatement saleStmt = con.prepareStatement(saleQuery, Statement.RETURN_GENERATED_KEYS);
-                saleStmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
-                saleStmt.setDouble(2, totalAmount);
-                saleStmt.setInt(3, totalItems);
-                saleStmt.setString(4, cashierEmail);
-                saleStmt.executeUpdate();
-                
-                // Get generated sale ID
-                ResultSet rs = saleStmt.getGeneratedKeys();
-                int saleId = 0;
-                if (rs.next()) {
-                    saleId = rs.getInt(1);
-                }
-                
-                // Insert sale items
-                String itemQuery = "INSERT INTO sale_items (saleId, productId, productName, quantity, price, subtotal) VALUES (?, ?, ?, ?, ?, ?)";
-                PreparedStatement itemStmt = con.prepareStatement(itemQuery);
-                
-                for (CartItem item : cartItems) {
-                    itemStmt.setInt(1, saleId);
-                    itemStmt.setInt(2, item.getProduct().getId());
-                    itemStmt.setString(3, item.getProduct().getName());
-                    itemStmt.setInt(4, item.getQuantity());
-                    itemStmt.setDouble(5, item.getPrice());
-                    itemStmt.setDouble(6, item.getSubtotal());
-                    itemStmt.addBatch();
-                    
-                    // Update product stock
-                    String updateStockQuery = "UPDATE Product SET currentStock = currentStock - ? WHERE id = ?";
-                    PreparedStatement stockStmt = con.prepareStatement(updateStockQuery);
-                    stockStmt.setInt(1, item.getQuantity());
-                    stockStmt.setInt(2, item.getProduct().getId());
-                    stockStmt.executeUpdate();
-                }
-                
-                itemStmt.executeBatch();
-                
-                con.commit(); // Commit transaction
-                
-                // Show success message
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setTitle("Sale Completed");
-                alert.setHeaderText(null);
-                alert.setContentText(String.format(
-                    "Sale completed successfully!\nTotal: ₱%.2f\nDiscount: %.0f%%\nCash: ₱%.2f\nChange: ₱%.2f\nItems: %d",
-                    totalAmount, currentDiscountPercent, cashReceived, change, totalItems));
-                alert.showAndWait();
-                
-                // Clear cart and reload products
-                clearCart();
-                loadProducts();
-                
-            } catch (SQLException e) {
-                con.rollback(); // Rollback on error
-                throw e;
-            }
+            // Clear cart and reload products
+            clearCart();
+            loadProducts();
             
         } catch (SQLException e) {
             e.printStackTrace();
@@ -709,38 +652,6 @@ public class POSController implements Initializable {
         }
     }
 
-    private void createSalesTableIfNotExists() {
-        try (Connection con = Database.connect()) {
-            if (con == null) return;
-            
-            // Create sales table
-            String createSalesTable = "CREATE TABLE IF NOT EXISTS sales (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                    "saleDate DATETIME NOT NULL, " +
-                    "totalAmount DECIMAL(10,2) NOT NULL, " +
-                    "totalItems INT NOT NULL, " +
-                    "cashierEmail VARCHAR(255)" +
-                    ")";
-            con.createStatement().executeUpdate(createSalesTable);
-            
-            // Create sale_items table
-            String createSaleItemsTable = "CREATE TABLE IF NOT EXISTS sale_items (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                    "saleId INT NOT NULL, " +
-                    "productId INT NOT NULL, " +
-                    "productName VARCHAR(255) NOT NULL, " +
-                    "quantity INT NOT NULL, " +
-                    "price DECIMAL(10,2) NOT NULL, " +
-                    "subtotal DECIMAL(10,2) NOT NULL, " +
-                    "FOREIGN KEY (saleId) REFERENCES sales(id) ON DELETE CASCADE" +
-                    ")";
-            con.createStatement().executeUpdate(createSaleItemsTable);
-            
-        } catch (SQLException e) {
-            System.err.println("Error creating sales tables: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
     
     private void loadCategories() {
     categoryBar.getChildren().clear();
@@ -750,17 +661,9 @@ public class POSController implements Initializable {
     allBtn.setStyle("-fx-background-color: #3498db; -fx-text-fill: white; -fx-background-radius: 15; -fx-padding: 5 15; -fx-font-weight: bold;");
     categoryBar.getChildren().add(allBtn);
 
-    try (Connection con = Database.connect()) {
-        if (con == null) return;
-        String query = "SELECT id, name FROM Category ORDER BY name";
-        ResultSet rs = con.createStatement().executeQuery(query);
-        
-        while (rs.next()) {
-            Button catBtn = createCategoryButton(rs.getString("name"), rs.getInt("id"));
-            categoryBar.getChildren().add(catBtn);
-        }
-    } catch (SQLException e) {
-        e.printStackTrace();
+    for (Category category : ReferenceData.getInstance().getCategories()) {
+        Button catBtn = createCategoryButton(category.getName(), category.getId());
+        categoryBar.getChildren().add(catBtn);
     }
 }
 
@@ -801,39 +704,8 @@ private void filterByCategory(int categoryId) {
         return;
     }
 
-    products.clear();
-    try (Connection con = Database.connect()) {
-        String query = "SELECT p.id, p.name, p.description, p.price, p.currentStock, " +
-                       "c.name AS category, s.name AS supplier " +
-                       "FROM Product p " +
-                       "LEFT JOIN Category c ON p.categoryId = c.id " +
-                       "LEFT JOIN Supplier s ON p.supplierId = s.id " +
-                       "WHERE p.isActive = true AND p.currentStock > 0 AND p.categoryId = ? " +
-                       "ORDER BY p.name";
-        
-        PreparedStatement ps = con.prepareStatement(query);
-        ps.setInt(1, categoryId);
-        ResultSet rs = ps.executeQuery();
-        
-        while (rs.next()) {
-            Product product = new Product();
-            product.setId(rs.getInt("id"));
-            product.setName(rs.getString("name"));
-            product.setDescription(rs.getString("description"));
-            product.setPrice(rs.getDouble("price"));
-            product.setCurrentStock(rs.getInt("currentStock"));
-            product.setCategoryName(rs.getString("category"));
-            product.setSupplierName(rs.getString("supplier"));
-            products.add(product);
-        }
-        
-        if (productCountLabel != null) {
-            productCountLabel.setText("Products: " + products.size());
-        }
-    } catch (SQLException e) {
-        e.printStackTrace();
-        showAlert("Error filtering by category: " + e.getMessage());
-    }
+    productLoader.load(() -> catalog.getAvailableByCategory(categoryId), this::showProducts,
+        e -> showAlert("Error filtering by category: " + e.getMessage()));
 }
 
 
@@ -1,6 +1,8 @@
 package controller;
 
 import app.ProductBundle;
+import cache.ProductConfigurationCache;
+import cache.ScanIndex;
 import database.Database;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -155,6 +157,8 @@ public class ProductBundleController {
             ps.setInt(2, itemProductId);
             ps.setInt(3, quantity);
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
             
             loadBundles(); // Reload table to ensure consistency
             clearForm();
@@ -216,6 +220,8 @@ public class ProductBundleController {
             ps.setInt(3, quantity);
             ps.setInt(4, b.getId());
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadBundles(); // Reload table to ensure consistency
             showAlert("Updated", "Bundle updated successfully!");
@@ -235,6 +241,8 @@ public class ProductBundleController {
             PreparedStatement ps = con.prepareStatement(sql);
             ps.setInt(1, b.getId());
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadBundles(); // Reload table to ensure consistency
             clearForm();
@@ -1,6 +1,9 @@
 package controller;
 
 import app.Product;
+import cache.ProductCatalog;
+import cache.ProductConfigurationCache;
+import cache.ReferenceData;
 import database.Database;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -12,8 +15,11 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import service.ProductImporter;
 
+import java.io.File;
 import java.sql.*;
 import java.util.HashSet;
 import java.util.Set;
@@ -37,6 +43,7 @@ public class ProductController {
     private ObservableList<Product> products = FXCollections.observableArrayList();
     private ObservableList<String> categories = FXCollections.observableArrayList();
     private ObservableList<String> suppliers = FXCollections.observableArrayList();
+    private final AsyncLoader<ProductImporter.Result> importLoader = new AsyncLoader<>();
 
     @FXML
     public void initialize() {
@@ -222,22 +229,14 @@ public class ProductController {
 
     /** Load categories */
     public void loadCategories() {
-        categories.clear();
-        try (Connection con = Database.connect()) {
-            ResultSet rs = con.createStatement().executeQuery("SELECT name FROM Category");
-            while (rs.next()) categories.add(rs.getString("name"));
-            cbCategory.setItems(categories);
-        } catch (SQLException e) { e.printStackTrace(); }
+        categories.setAll(ReferenceData.getInstance().getCategoryNames());
+        cbCategory.setItems(categories);
     }
 
     /** Load suppliers */
     public void loadSuppliers() {
-        suppliers.clear();
-        try (Connection con = Database.connect()) {
-            ResultSet rs = con.createStatement().executeQuery("SELECT name FROM Supplier");
-            while (rs.next()) suppliers.add(rs.getString("name"));
-            cbSupplier.setItems(suppliers);
-        } catch (SQLException e) { e.printStackTrace(); }
+        suppliers.setAll(ReferenceData.getInstance().getSupplierNames());
+        cbSupplier.setItems(suppliers);
     }
 
     /** Add Product */
@@ -285,19 +284,10 @@ public class ProductController {
             return;
         }
 
-        try (Connection con = Database.connect()) {
-            Integer categoryId = null;
-            if (cbCategory.getValue() != null) {
-                ResultSet rs = con.createStatement().executeQuery("SELECT id FROM Category WHERE name='" + cbCategory.getValue() + "'");
-                if (rs.next()) categoryId = rs.getInt("id");
-            }
-
-            Integer supplierId = null;
-            if (cbSupplier.getValue() != null) {
-                ResultSet rs = con.createStatement().executeQuery("SELECT id FROM Supplier WHERE name='" + cbSupplier.getValue() + "'");
-                if (rs.next()) supplierId = rs.getInt("id");
-            }
+        Integer categoryId = ReferenceData.getInstance().getCategoryId(cbCategory.getValue());
+        Integer supplierId = ReferenceData.getInstance().getSupplierId(cbSupplier.getValue());
 
+        try (Connection con = Database.connect()) {
             String sql = "INSERT INTO Product(name, description, categoryId, supplierId, sku, barcode, " +
                     "inventoryTracking, baseUnit, price, cost, initialStock, currentStock, reorderLevel, " +
                     "productType, isActive, image, discount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
@@ -320,6 +310,10 @@ public class ProductController {
             ps.setString(16, image.isEmpty() ? null : image);
             ps.setDouble(17, 0.0); // product-level discount no longer used; keep column at 0
             ps.executeUpdate();
+            ResultSet keys = ps.getGeneratedKeys();
+            if (keys.next()) {
+                ProductCatalog.getInstance().refresh(keys.getInt(1));
+            }
 
             loadProducts();
             clearForm();
@@ -381,19 +375,10 @@ public class ProductController {
             return;
         }
 
-        try (Connection con = Database.connect()) {
-            Integer categoryId = null;
-            if (cbCategory.getValue() != null) {
-                ResultSet rs = con.createStatement().executeQuery("SELECT id FROM Category WHERE name='" + cbCategory.getValue() + "'");
-                if (rs.next()) categoryId = rs.getInt("id");
-            }
-
-            Integer supplierId = null;
-            if (cbSupplier.getValue() != null) {
-                ResultSet rs = con.createStatement().executeQuery("SELECT id FROM Supplier WHERE name='" + cbSupplier.getValue() + "'");
-                if (rs.next()) supplierId = rs.getInt("id");
-            }
+        Integer categoryId = ReferenceData.getInstance().getCategoryId(cbCategory.getValue());
+        Integer supplierId = ReferenceData.getInstance().getSupplierId(cbSupplier.getValue());
 
+        try (Connection con = Database.connect()) {
             String sql = "UPDATE Product SET name=?, description=?, categoryId=?, supplierId=?, sku=?, barcode=?, " +
                     "inventoryTracking=?, baseUnit=?, price=?, cost=?, initialStock=?, currentStock=?, reorderLevel=?, " +
                     "productType=?, isActive=?, image=?, discount=? WHERE id=?";
@@ -417,6 +402,8 @@ public class ProductController {
             ps.setDouble(17, 0.0); // keep DB column but ignore product-level discount
             ps.setInt(18, p.getId());
             ps.executeUpdate();
+            ProductCatalog.getInstance().refresh(p.getId());
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadProducts();
             showAlert("Updated", "Product updated successfully!");
@@ -437,6 +424,8 @@ public class ProductController {
             PreparedStatement ps = con.prepareStatement(sql);
             ps.setInt(1, p.getId());
             ps.executeUpdate();
+            ProductCatalog.getInstance().remove(p.getId());
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadProducts();
             clearForm();
@@ -474,6 +463,49 @@ public class ProductController {
         a.show();
     }
 
+    /** Bulk-load products, variants and modifiers from a CSV or TSV file (format in ProductImporter) */
+    @FXML
+    private void importProducts() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Products");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("CSV / TSV Files", "*.csv", "*.tsv", "*.txt"),
+            new FileChooser.ExtensionFilter("All Files", "*.*"));
+        File file = fileChooser.showOpenDialog(tableProducts.getScene().getWindow());
+        if (file == null) return;
+
+        importLoader.load(
+            () -> new ProductImporter().importFile(file.toPath()),
+            result -> {
+                loadProducts();
+                loadCategories();
+                loadSuppliers();
+                StringBuilder msg = new StringBuilder();
+                msg.append(String.format("Imported %d products, %d variants and %d modifiers (%d options) " +
+                        "from %d rows in %.1f s (%.0f rows/s).%n",
+                        result.getProducts(), result.getVariants(), result.getModifiers(), result.getOptions(),
+                        result.getRowsRead(), result.getElapsedSeconds(), result.getRowsPerSecond()));
+                if (result.getCategoriesCreated() + result.getSuppliersCreated() > 0) {
+                    msg.append(String.format("Created %d categories and %d suppliers.%n",
+                            result.getCategoriesCreated(), result.getSuppliersCreated()));
+                }
+                if (result.getErrorCount() > 0) {
+                    msg.append(String.format("%n%d rows were skipped:%n", result.getErrorCount()));
+                    int shown = 0;
+                    for (ProductImporter.RowError error : result.getErrors()) {
+                        if (shown++ == 10) {
+                            msg.append("...\n");
+                            break;
+                        }
+                        msg.append(error).append("\n");
+                    }
+                }
+                showAlert("Import", msg.toString());
+            },
+            error -> showAlert("Error", "Import failed: " + error.getMessage())
+        );
+    }
+
     /** Generic method to open any management window */
     private void openWindow(String fxmlPath, String title) {
         try {
@@ -3,6 +3,8 @@ package controller;
 import app.ProductModifier;
 import app.ProductModifierOption;
 import app.Product;
+import cache.ProductConfigurationCache;
+import cache.ScanIndex;
 import database.Database;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -247,6 +249,8 @@ public class ProductModifierController {
             ps.setString(3, type);
             ps.setBoolean(4, required);
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             ResultSet rsKeys = ps.getGeneratedKeys();
             if (rsKeys.next()) {
@@ -288,6 +292,8 @@ public class ProductModifierController {
             ps.setBoolean(4, required);
             ps.setInt(5, m.getId());
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             m.setName(name);
             m.setType(type);
@@ -313,6 +319,8 @@ public class ProductModifierController {
             PreparedStatement ps = con.prepareStatement(sql);
             ps.setInt(1, m.getId());
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadModifiers(); // Reload table to ensure consistency
             clearForm();
@@ -371,6 +379,7 @@ public class ProductModifierController {
             ps.setDouble(2, price);
             ps.setInt(3, modifierId);
             ps.executeUpdate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadModifierOptions();
             clearOptionForm();
@@ -423,6 +432,7 @@ public class ProductModifierController {
             ps.setInt(3, modifierId);
             ps.setInt(4, o.getId());
             ps.executeUpdate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadModifierOptions();
             showAlert("Updated", "Option updated successfully!");
@@ -442,6 +452,7 @@ public class ProductModifierController {
             PreparedStatement ps = con.prepareStatement(sql);
             ps.setInt(1, o.getId());
             ps.executeUpdate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadModifierOptions();
             clearOptionForm();
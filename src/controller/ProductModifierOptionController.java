@@ -1,6 +1,7 @@
 package controller;
 
 import app.ProductModifierOption;
+import cache.ProductConfigurationCache;
 import database.Database;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -142,6 +143,7 @@ public class ProductModifierOptionController {
             ps.setDouble(2, price);
             ps.setInt(3, modifierId);
             ps.executeUpdate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadOptions(); // Reload table to ensure consistency
             clearForm();
@@ -197,6 +199,7 @@ public class ProductModifierOptionController {
             ps.setInt(3, modifierId);
             ps.setInt(4, o.getId());
             ps.executeUpdate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadOptions(); // Reload table to ensure consistency
             showAlert("Updated", "Option updated successfully!");
@@ -216,6 +219,7 @@ public class ProductModifierOptionController {
             PreparedStatement ps = con.prepareStatement(sql);
             ps.setInt(1, o.getId());
             ps.executeUpdate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadOptions(); // Reload table to ensure consistency
             clearForm();
@@ -1,18 +1,11 @@
 package controller;
 
 import app.Product;
+import app.ProductConfiguration;
 import app.ProductVariant;
 import app.ProductModifier;
 import app.ProductModifierOption;
 import app.ProductBundle;
-import dao.ProductVariantDAO;
-import dao.ProductModifierDAO;
-import dao.ProductBundleDAO;
-import dao.ProductModifierOptionDAO;
-import dao.impl.ProductVariantDAOImpl;
-import dao.impl.ProductModifierDAOImpl;
-import dao.impl.ProductBundleDAOImpl;
-import dao.impl.ProductModifierOptionDAOImpl;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -27,10 +20,7 @@ import java.util.List;
 public class ProductSelectionDialog extends Dialog<ProductSelectionDialog.ProductSelectionResult> {
     
     private Product product;
-    private ProductVariantDAO variantDAO;
-    private ProductModifierDAO modifierDAO;
-    private ProductBundleDAO bundleDAO;
-    private ProductModifierOptionDAO modifierOptionDAO;
+    private ProductConfiguration configuration;
     
     private ComboBox<ProductVariant> variantComboBox;
     private ListView<ProductModifierSelection> modifierListView;
@@ -41,12 +31,10 @@ public class ProductSelectionDialog extends Dialog<ProductSelectionDialog.Produc
     private List<ProductModifier> modifiers;
     private List<ProductBundle> bundles;
     
-    public ProductSelectionDialog(Product product) {
+    /** configuration comes from ProductConfigurationCache, so building the dialog does no I/O */
+    public ProductSelectionDialog(Product product, ProductConfiguration configuration) {
         this.product = product;
-        this.variantDAO = new ProductVariantDAOImpl();
-        this.modifierDAO = new ProductModifierDAOImpl();
-        this.bundleDAO = new ProductBundleDAOImpl();
-        this.modifierOptionDAO = new ProductModifierOptionDAOImpl();
+        this.configuration = configuration;
         
         setTitle("Select Product Options");
         setHeaderText("Configure: " + product.getName());
@@ -134,7 +122,7 @@ public class ProductSelectionDialog extends Dialog<ProductSelectionDialog.Produc
     }
     
     private void loadVariants() {
-        variants = variantDAO.findByProductId(product.getId());
+        variants = configuration.getVariants();
         ObservableList<ProductVariant> variantList = FXCollections.observableArrayList();
 
         // If there are no variants, clearly indicate that in the UI
@@ -186,7 +174,7 @@ public class ProductSelectionDialog extends Dialog<ProductSelectionDialog.Produc
     }
     
     private void loadModifiers() {
-        modifiers = modifierDAO.findByProductId(product.getId());
+        modifiers = configuration.getModifiers();
         ObservableList<ProductModifierSelection> modifierSelections = FXCollections.observableArrayList();
         
         if (modifiers == null || modifiers.isEmpty()) {
@@ -196,8 +184,6 @@ public class ProductSelectionDialog extends Dialog<ProductSelectionDialog.Produc
             modifierListView.setPlaceholder(new Label("No modifiers available for this product."));
         } else {
         for (ProductModifier modifier : modifiers) {
-            List<ProductModifierOption> options = modifierOptionDAO.findByModifierId(modifier.getId());
-            modifier.setOptions(options);
             modifierSelections.add(new ProductModifierSelection(modifier));
         }
         
@@ -208,7 +194,7 @@ public class ProductSelectionDialog extends Dialog<ProductSelectionDialog.Produc
     }
     
     private void loadBundles() {
-        bundles = bundleDAO.findByBundleProductId(product.getId());
+        bundles = configuration.getBundles();
         ObservableList<ProductBundle> bundleList = FXCollections.observableArrayList();
 
         if (bundles == null || bundles.isEmpty()) {
@@ -2,6 +2,8 @@ package controller;
 
 import app.ProductVariant;
 import app.Product;
+import cache.ProductConfigurationCache;
+import cache.ScanIndex;
 import database.Database;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -170,6 +172,8 @@ public class ProductVariantController {
             ps.setString(8, attributes.isEmpty() ? null : attributes);
             ps.setBoolean(9, isActive);
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             ResultSet rsKeys = ps.getGeneratedKeys();
             if (rsKeys.next()) {
@@ -220,6 +224,8 @@ public class ProductVariantController {
             ps.setBoolean(9, isActive);
             ps.setInt(10, v.getId());
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             v.setName(name);
             v.setSku(sku);
@@ -249,6 +255,8 @@ public class ProductVariantController {
             PreparedStatement ps = con.prepareStatement(sql);
             ps.setInt(1, v.getId());
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
 
             loadVariants(); // Reload table to ensure consistency
             clearForm();
@@ -1,7 +1,17 @@
 package controller;
 
 import app.Sales;
+import app.SalesSummary;
+import cache.ReportCache;
+import cache.SalesAnalytics;
+import dao.SalesDAO;
+import dao.SalesRollupDAO;
+import dao.impl.SalesDAOImpl;
+import dao.impl.SalesRollupDAOImpl;
 import database.Database;
+import service.PartitionedReportExecutor;
+import service.ProductSalesRanking;
+import service.SalesCsvExporter;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -10,17 +20,25 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
 
 public class ReportsController implements Initializable {
@@ -39,15 +57,69 @@ public class ReportsController implements Initializable {
     @FXML private Label totalSalesLabel;
     @FXML private Label totalItemsLabel;
     @FXML private Label averageSaleLabel;
+    @FXML private Label largestSaleLabel;
+
+    @FXML private VBox heatmapPane;
+    @FXML private GridPane heatmapGrid;
+    @FXML private ComboBox<String> heatmapMeasureBox;
+    @FXML private ComboBox<String> heatmapCashierBox;
+    @FXML private Label heatmapInfoLabel;
+
+    @FXML private VBox rankingPane;
+    @FXML private TableView<ProductSalesRanking.Row> rankingTable;
+    @FXML private TableColumn<ProductSalesRanking.Row, Integer> colRankPosition;
+    @FXML private TableColumn<ProductSalesRanking.Row, String> colRankProduct;
+    @FXML private TableColumn<ProductSalesRanking.Row, Integer> colRankQuantity;
+    @FXML private TableColumn<ProductSalesRanking.Row, String> colRankRevenue;
+    @FXML private TableColumn<ProductSalesRanking.Row, String> colRankMargin;
+    @FXML private ComboBox<String> rankingMetricBox;
+    @FXML private ComboBox<String> rankingOrderBox;
+    @FXML private ComboBox<Integer> rankingLimitBox;
 
     private ObservableList<Sales> sales = FXCollections.observableArrayList();
     private LocalDate reportStartDate;
     private LocalDate reportEndDate;
 
+    // Summary numbers are aggregated by MySQL in one query; per-day rows come from the rollup
+    private final SalesDAO salesDAO = new SalesDAOImpl();
+    private final SalesRollupDAO rollupDAO = new SalesRollupDAOImpl();
+    private final ReportCache reportCache = ReportCache.getInstance();
+    private SalesSummary summary;
+    // True while the table lists one rollup row per day rather than individual sales
+    private boolean showingDailyTotals;
+    private final AsyncLoader<SalesCsvExporter.Result> exportLoader = new AsyncLoader<>();
+    // "All Sales" pages through the whole history instead of loading it at once
+    private SalesPager allSalesPager;
+
+    // Hour-by-weekday view, computed in memory by SalesAnalytics
+    private static final String[] DAY_NAMES = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    private static final String MEASURE_REVENUE = "Revenue";
+    private static final String MEASURE_TRANSACTIONS = "Transactions";
+    private static final String MEASURE_ITEMS = "Items sold";
+    private static final String ALL_CASHIERS = "All cashiers";
+    private final AsyncLoader<SalesAnalytics.Heatmap> heatmapLoader = new AsyncLoader<>();
+    private SalesAnalytics.Heatmap heatmap;
+    private boolean updatingCashiers;
+
+    // Best/worst sellers from sale_items
+    private static final String METRIC_QUANTITY = "Quantity";
+    private static final String METRIC_REVENUE = "Revenue";
+    private static final String METRIC_MARGIN = "Margin";
+    private static final String ORDER_BEST = "Best sellers";
+    private static final String ORDER_WORST = "Worst sellers";
+    private final ObservableList<ProductSalesRanking.Row> ranking = FXCollections.observableArrayList();
+    private final AsyncLoader<List<ProductSalesRanking.Row>> rankingLoader = new AsyncLoader<>();
+
+    // Custom ranges longer than this are summarized per day instead of listing every sale
+    private static final long RAW_ROWS_MAX_DAYS = 31;
+    private static final PartitionedReportExecutor reportExecutor = new PartitionedReportExecutor();
+    private final AsyncLoader<PartitionedReportExecutor.Report> partitionLoader = new AsyncLoader<>();
+
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        createSalesTableIfNotExists();
         setupTable();
+        setupHeatmap();
+        setupRanking();
         
         // Set default dates (today)
         LocalDate today = LocalDate.now();
@@ -65,16 +137,14 @@ public class ReportsController implements Initializable {
         colReportDate.setCellValueFactory(data -> {
             LocalDateTime date = data.getValue().getSaleDate();
             if (date != null) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                return new SimpleStringProperty(date.format(formatter));
+                return new SimpleStringProperty(formatDate(date));
             }
             return new SimpleStringProperty("");
         });
         
         colReportAmount.setCellValueFactory(data -> new SimpleDoubleProperty(data.getValue().getTotalAmount()).asObject());
         colReportItems.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().getTotalItems()).asObject());
-        colReportCashier.setCellValueFactory(data -> new SimpleStringProperty(
-            data.getValue().getCashierEmail() != null ? data.getValue().getCashierEmail() : "N/A"));
+        colReportCashier.setCellValueFactory(data -> new SimpleStringProperty(formatCashier(data.getValue())));
         
         // Format amount column
         colReportAmount.setCellFactory(column -> new TableCell<Sales, Double>() {
@@ -90,6 +160,20 @@ public class ReportsController implements Initializable {
         });
         
         reportsTable.setItems(sales);
+        allSalesPager = new SalesPager(reportsTable, sales, () -> showAlert("Error loading sales!"));
+
+        // Double-click a day of the monthly view to see its individual sales
+        reportsTable.setOnMouseClicked(event -> {
+            if (showingDailyTotals && event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
+                Sales day = reportsTable.getSelectionModel().getSelectedItem();
+                if (day != null && day.getSaleDate() != null) {
+                    LocalDate date = day.getSaleDate().toLocalDate();
+                    startDatePicker.setValue(date);
+                    endDatePicker.setValue(date);
+                    generateDailyReport();
+                }
+            }
+        });
     }
 
     @FXML
@@ -121,7 +205,7 @@ public class ReportsController implements Initializable {
         reportStartDate = firstDay;
         reportEndDate = lastDay;
         
-        loadSalesByDateRange(firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay());
+        loadDailyTotals(firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay());
     }
 
     @FXML
@@ -142,7 +226,101 @@ public class ReportsController implements Initializable {
         reportStartDate = startDate;
         reportEndDate = endDate;
         
-        loadSalesByDateRange(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+        if (ChronoUnit.DAYS.between(start, end) > RAW_ROWS_MAX_DAYS) {
+            loadPartitionedTotals(start, end);
+        } else {
+            loadSalesByDateRange(start, end);
+        }
+    }
+
+    /** Revenue, transactions or items per hour of day and weekday over the selected range */
+    @FXML
+    private void generateHeatmapReport() {
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        
+        if (startDate == null || endDate == null) {
+            showAlert("Please select both start and end dates!");
+            return;
+        }
+        
+        if (startDate.isAfter(endDate)) {
+            showAlert("Start date must be before or equal to end date!");
+            return;
+        }
+        
+        reportStartDate = startDate;
+        reportEndDate = endDate;
+        setShowingDailyTotals(false);
+        showView(heatmapPane);
+        sales.clear();
+
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+        String selected = heatmapCashierBox.getValue();
+        String cashier = selected == null || selected.equals(ALL_CASHIERS) ? null : selected;
+        heatmapInfoLabel.setText("Loading...");
+        heatmapLoader.load(
+            () -> {
+                SalesAnalytics analytics = SalesAnalytics.getInstance();
+                analytics.refresh(); // only sales added since the last report are read
+                return analytics.heatmap(start, end, cashier);
+            },
+            result -> {
+                heatmap = result;
+                refreshCashierChoices();
+                renderHeatmap();
+                updateSummary(new SalesSummary(start, cashier, (int) result.getSaleCount(),
+                        result.getTotalAmount(), (int) result.getTotalItems(), 0.0, result.getLargestSale()));
+                heatmapInfoLabel.setText(String.format("%,d of %,d sales in %.1f ms",
+                        result.getSaleCount(), result.getScanned(), result.getComputeMillis()));
+            },
+            error -> {
+                heatmapInfoLabel.setText("");
+                showAlert("Error loading sales: " + error.getMessage());
+            }
+        );
+    }
+
+    /** Top (or bottom) N products over the selected range */
+    @FXML
+    private void generateBestSellerReport() {
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        
+        if (startDate == null || endDate == null) {
+            showAlert("Please select both start and end dates!");
+            return;
+        }
+        
+        if (startDate.isAfter(endDate)) {
+            showAlert("Start date must be before or equal to end date!");
+            return;
+        }
+        
+        reportStartDate = startDate;
+        reportEndDate = endDate;
+        setShowingDailyTotals(false);
+        showView(rankingPane);
+        sales.clear();
+
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+        String metricName = rankingMetricBox.getValue();
+        ProductSalesRanking.Metric metric = METRIC_REVENUE.equals(metricName) ? ProductSalesRanking.Metric.REVENUE
+                : METRIC_MARGIN.equals(metricName) ? ProductSalesRanking.Metric.MARGIN
+                : ProductSalesRanking.Metric.QUANTITY;
+        boolean best = !ORDER_WORST.equals(rankingOrderBox.getValue());
+        int limit = rankingLimitBox.getValue();
+
+        showSummary(start, end);
+        rankingLoader.load(
+            () -> new ProductSalesRanking().rank(start, end, metric, limit, best),
+            rows -> ranking.setAll(rows),
+            error -> showAlert("Error loading best sellers: " + error.getMessage())
+        );
     }
 
     @FXML
@@ -150,30 +328,27 @@ public class ReportsController implements Initializable {
         reportStartDate = null;
         reportEndDate = null;
         
+        setShowingDailyTotals(false);
+        allSalesPager.start(null);
+        showSummary(null, null);
+    }
+
+    private void loadSalesByDateRange(LocalDateTime start, LocalDateTime end) {
+        setShowingDailyTotals(false);
         sales.clear();
-        try (Connection con = Database.connect()) {
-            if (con == null) {
-                showAlert("Database connection failed!");
-                return;
-            }
-            
-            String query = "SELECT * FROM sales ORDER BY saleDate DESC";
-            ResultSet rs = con.createStatement().executeQuery(query);
-            
-            loadSalesFromResultSet(rs);
-            updateSummary();
-        } catch (SQLException e) {
+        try {
+            sales.setAll(reportCache.get("sales", start, end, null, () -> querySalesByDateRange(start, end)));
+            showSummary(start, end);
+        } catch (Exception e) {
             e.printStackTrace();
             showAlert("Error loading sales: " + e.getMessage());
         }
     }
 
-    private void loadSalesByDateRange(LocalDateTime start, LocalDateTime end) {
-        sales.clear();
+    private List<Sales> querySalesByDateRange(LocalDateTime start, LocalDateTime end) throws SQLException {
         try (Connection con = Database.connect()) {
             if (con == null) {
-                showAlert("Database connection failed!");
-                return;
+                throw new SQLException("Database connection failed!");
             }
             
             String query = "SELECT * FROM sales WHERE saleDate >= ? AND saleDate < ? ORDER BY saleDate DESC";
@@ -182,15 +357,12 @@ public class ReportsController implements Initializable {
             ps.setTimestamp(2, Timestamp.valueOf(end));
             
             ResultSet rs = ps.executeQuery();
-            loadSalesFromResultSet(rs);
-            updateSummary();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Error loading sales: " + e.getMessage());
+            return loadSalesFromResultSet(rs);
         }
     }
 
-    private void loadSalesFromResultSet(ResultSet rs) throws SQLException {
+    private List<Sales> loadSalesFromResultSet(ResultSet rs) throws SQLException {
+        List<Sales> rows = new ArrayList<>();
         while (rs.next()) {
             Sales sale = new Sales();
             sale.setId(rs.getInt("id"));
@@ -203,31 +375,257 @@ public class ReportsController implements Initializable {
             sale.setTotalAmount(rs.getDouble("totalAmount"));
             sale.setTotalItems(rs.getInt("totalItems"));
             sale.setCashierEmail(rs.getString("cashierEmail"));
-            sales.add(sale);
+            rows.add(sale);
         }
+        return rows;
     }
 
-    private void updateSummary() {
-        int transactionsCount = sales.size();
-        double totalSales = 0.0;
-        int totalItems = 0;
-        
-        for (Sales sale : sales) {
-            totalSales += sale.getTotalAmount();
-            totalItems += sale.getTotalItems();
+    /** Summary labels for a range, through the report cache; blanked when the query fails */
+    private void showSummary(LocalDateTime start, LocalDateTime end) {
+        try {
+            updateSummary(reportCache.get("summary", start, end, null, () -> salesDAO.summarize(start, end)));
+        } catch (Exception e) {
+            e.printStackTrace();
+            clearSummary();
+            showAlert("Error loading summary: " + e.getMessage());
         }
-        
-        double averageSale = transactionsCount > 0 ? totalSales / transactionsCount : 0.0;
-        
-        transactionsCountLabel.setText(String.valueOf(transactionsCount));
-        totalSalesLabel.setText(String.format("₱%.2f", totalSales));
-        totalItemsLabel.setText(String.valueOf(totalItems));
-        averageSaleLabel.setText(String.format("₱%.2f", averageSale));
+    }
+
+    /** One row per day from the rollup; the Sale ID column holds that day's transaction count */
+    private void loadDailyTotals(LocalDateTime start, LocalDateTime end) {
+        setShowingDailyTotals(true);
+        sales.clear();
+        try {
+            List<SalesSummary> days = reportCache.get("daily", start, end, null, () -> rollupDAO.findDaily(start, end));
+            for (SalesSummary day : days) {
+                sales.add(new Sales(day.getTransactionCount(), day.getPeriodStart(),
+                        day.getTotalAmount(), day.getTotalItems(), null));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            showAlert("Error loading sales: " + e.getMessage());
+        }
+        showSummary(start, end);
+    }
+
+    /**
+     * Long custom ranges: one row per day, aggregated partition by partition in
+     * parallel; double-click a day for its sales
+     */
+    private void loadPartitionedTotals(LocalDateTime start, LocalDateTime end) {
+        setShowingDailyTotals(true);
+        sales.clear();
+        partitionLoader.load(
+            () -> reportCache.get("partitioned", start, end, null, () -> reportExecutor.run(start, end)),
+            report -> {
+                for (SalesSummary day : report.getDays()) {
+                    sales.add(new Sales(day.getTransactionCount(), day.getPeriodStart(),
+                            day.getTotalAmount(), day.getTotalItems(), null));
+                }
+                updateSummary(report.getTotal());
+            },
+            error -> showAlert("Error loading sales: " + error.getMessage())
+        );
+    }
+
+    private void setShowingDailyTotals(boolean dailyTotals) {
+        partitionLoader.cancel();
+        allSalesPager.stop();
+        showView(reportsTable);
+        showingDailyTotals = dailyTotals;
+        colReportId.setText(dailyTotals ? "Sales" : "Sale ID");
+        colReportDate.setText(dailyTotals ? "Date" : "Date & Time");
+    }
+
+    private void setupHeatmap() {
+        heatmapMeasureBox.getItems().setAll(MEASURE_REVENUE, MEASURE_TRANSACTIONS, MEASURE_ITEMS);
+        heatmapMeasureBox.setValue(MEASURE_REVENUE);
+        heatmapMeasureBox.valueProperty().addListener((obs, oldValue, value) -> renderHeatmap());
+
+        heatmapCashierBox.getItems().setAll(ALL_CASHIERS);
+        heatmapCashierBox.setValue(ALL_CASHIERS);
+        heatmapCashierBox.valueProperty().addListener((obs, oldValue, value) -> {
+            if (!updatingCashiers && value != null && heatmapPane.isVisible()) {
+                generateHeatmapReport();
+            }
+        });
+    }
+
+    /** Show one of the sales table, the heatmap or the product ranking */
+    private void showView(Node view) {
+        for (Node candidate : List.of(reportsTable, heatmapPane, rankingPane)) {
+            candidate.setVisible(candidate == view);
+            candidate.setManaged(candidate == view);
+        }
+        if (view != heatmapPane) {
+            heatmapLoader.cancel();
+        }
+        if (view != rankingPane) {
+            rankingLoader.cancel();
+            ranking.clear();
+        }
+    }
+
+    private void setupRanking() {
+        colRankPosition.setCellValueFactory(data ->
+            new SimpleIntegerProperty(rankingTable.getItems().indexOf(data.getValue()) + 1).asObject());
+        colRankProduct.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getProductName()));
+        colRankQuantity.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().getQuantity()).asObject());
+        colRankRevenue.setCellValueFactory(data -> new SimpleStringProperty(
+            String.format("₱%,.2f", data.getValue().getRevenue())));
+        colRankMargin.setCellValueFactory(data -> {
+            Double margin = data.getValue().getMargin();
+            return new SimpleStringProperty(margin != null ? String.format("₱%,.2f", margin) : "—");
+        });
+        rankingTable.setItems(ranking);
+
+        rankingMetricBox.getItems().setAll(METRIC_QUANTITY, METRIC_REVENUE, METRIC_MARGIN);
+        rankingMetricBox.setValue(METRIC_QUANTITY);
+        rankingOrderBox.getItems().setAll(ORDER_BEST, ORDER_WORST);
+        rankingOrderBox.setValue(ORDER_BEST);
+        rankingLimitBox.getItems().setAll(10, 25, 50, 100);
+        rankingLimitBox.setValue(10);
+        // Changing any option re-ranks the current range
+        rankingMetricBox.setOnAction(e -> rerank());
+        rankingOrderBox.setOnAction(e -> rerank());
+        rankingLimitBox.setOnAction(e -> rerank());
+    }
+
+    private void rerank() {
+        if (rankingPane.isVisible()) {
+            generateBestSellerReport();
+        }
+    }
+
+    private void refreshCashierChoices() {
+        String selected = heatmapCashierBox.getValue();
+        updatingCashiers = true;
+        try {
+            heatmapCashierBox.getItems().setAll(ALL_CASHIERS);
+            for (String cashier : SalesAnalytics.getInstance().getCashiers()) {
+                if (!cashier.isEmpty()) {
+                    heatmapCashierBox.getItems().add(cashier);
+                }
+            }
+            heatmapCashierBox.setValue(selected != null ? selected : ALL_CASHIERS);
+        } finally {
+            updatingCashiers = false;
+        }
+    }
+
+    /** Redraw the grid for the chosen measure; switching measures needs no recomputation */
+    private void renderHeatmap() {
+        heatmapGrid.getChildren().clear();
+        if (heatmap == null) return;
+        String measure = heatmapMeasureBox.getValue();
+
+        double[][] values = new double[SalesAnalytics.DAYS][SalesAnalytics.HOURS];
+        double max = 0;
+        for (int day = 0; day < SalesAnalytics.DAYS; day++) {
+            for (int hour = 0; hour < SalesAnalytics.HOURS; hour++) {
+                double value = MEASURE_TRANSACTIONS.equals(measure) ? heatmap.getCount(day, hour)
+                        : MEASURE_ITEMS.equals(measure) ? heatmap.getItems(day, hour)
+                        : heatmap.getRevenue(day, hour);
+                values[day][hour] = value;
+                max = Math.max(max, value);
+            }
+        }
+
+        for (int day = 0; day < SalesAnalytics.DAYS; day++) {
+            heatmapGrid.add(heatmapHeader(DAY_NAMES[day]), day + 1, 0);
+        }
+        heatmapGrid.add(heatmapHeader("Total"), SalesAnalytics.DAYS + 1, 0);
+
+        double[] dayTotals = new double[SalesAnalytics.DAYS];
+        for (int hour = 0; hour < SalesAnalytics.HOURS; hour++) {
+            heatmapGrid.add(heatmapHeader(String.format("%02d:00", hour)), 0, hour + 1);
+            double hourTotal = 0;
+            for (int day = 0; day < SalesAnalytics.DAYS; day++) {
+                double value = values[day][hour];
+                hourTotal += value;
+                dayTotals[day] += value;
+                Label cell = heatmapCell(formatMeasure(measure, value));
+                double intensity = max > 0 ? value / max : 0;
+                cell.setStyle(cell.getStyle() + String.format(
+                        "-fx-background-color: rgba(39, 174, 96, %.2f);", 0.08 + intensity * 0.82));
+                heatmapGrid.add(cell, day + 1, hour + 1);
+            }
+            heatmapGrid.add(heatmapHeader(formatMeasure(measure, hourTotal)), SalesAnalytics.DAYS + 1, hour + 1);
+        }
+
+        heatmapGrid.add(heatmapHeader("Total"), 0, SalesAnalytics.HOURS + 1);
+        double grandTotal = 0;
+        for (int day = 0; day < SalesAnalytics.DAYS; day++) {
+            grandTotal += dayTotals[day];
+            heatmapGrid.add(heatmapHeader(formatMeasure(measure, dayTotals[day])), day + 1, SalesAnalytics.HOURS + 1);
+        }
+        heatmapGrid.add(heatmapHeader(formatMeasure(measure, grandTotal)),
+                SalesAnalytics.DAYS + 1, SalesAnalytics.HOURS + 1);
+    }
+
+    private String formatMeasure(String measure, double value) {
+        return MEASURE_REVENUE.equals(measure) ? String.format("₱%,.2f", value) : String.format("%,.0f", value);
+    }
+
+    private Label heatmapHeader(String text) {
+        Label label = heatmapCell(text);
+        label.setStyle(label.getStyle() + "-fx-font-weight: bold; -fx-background-color: #f0f0f0;");
+        return label;
+    }
+
+    private Label heatmapCell(String text) {
+        Label label = new Label(text);
+        label.setMaxWidth(Double.MAX_VALUE);
+        label.setStyle("-fx-padding: 3 8; -fx-alignment: center-right;");
+        return label;
+    }
+
+    private void updateSummary(SalesSummary summary) {
+        this.summary = summary;
+        transactionsCountLabel.setText(String.valueOf(summary.getTransactionCount()));
+        totalSalesLabel.setText(String.format("₱%.2f", summary.getTotalAmount()));
+        totalItemsLabel.setText(String.valueOf(summary.getTotalItems()));
+        averageSaleLabel.setText(String.format("₱%.2f", summary.getAverageSale()));
+        largestSaleLabel.setText(String.format("₱%.2f", summary.getLargestSale()));
+    }
+
+    private void clearSummary() {
+        this.summary = null;
+        transactionsCountLabel.setText("-");
+        totalSalesLabel.setText("-");
+        totalItemsLabel.setText("-");
+        averageSaleLabel.setText("-");
+        largestSaleLabel.setText("-");
+    }
+
+    private String formatDate(LocalDateTime date) {
+        return date.format(DateTimeFormatter.ofPattern(showingDailyTotals ? "yyyy-MM-dd" : "yyyy-MM-dd HH:mm:ss"));
+    }
+
+    private String formatCashier(Sales sale) {
+        if (showingDailyTotals) return "All cashiers";
+        return sale.getCashierEmail() != null ? sale.getCashierEmail() : "N/A";
     }
 
     @FXML
     private void exportToCSV() {
-        if (sales.isEmpty()) {
+        exportReport(false);
+    }
+
+    @FXML
+    private void exportToCSVWithItems() {
+        exportReport(true);
+    }
+
+    /**
+     * Individual sales (and their items) are streamed from the database into
+     * the file on a background thread, so the size of the export does not
+     * depend on what the table holds. The monthly view's per-day rows are
+     * already in memory and are written directly.
+     */
+    private void exportReport(boolean includeItems) {
+        boolean exportRanking = rankingPane.isVisible();
+        if (exportRanking ? ranking.isEmpty() : summary == null || summary.getTransactionCount() == 0) {
             showAlert("No data to export!");
             return;
         }
@@ -238,81 +636,97 @@ public class ReportsController implements Initializable {
             new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
         
         // Set default filename
-        String defaultFileName = "SalesReport_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".csv";
+        String defaultFileName = (exportRanking ? "ProductRanking_" : includeItems ? "SalesItemsReport_" : "SalesReport_")
+                + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".csv";
         fileChooser.setInitialFileName(defaultFileName);
         
         Stage stage = (Stage) reportsTable.getScene().getWindow();
         File file = fileChooser.showSaveDialog(stage);
-        
-        if (file != null) {
-            try (FileWriter writer = new FileWriter(file)) {
-                // Write header
-                writer.append("Sale ID,Date & Time,Total Amount,Items,Cashier\n");
-                
-                // Write data
-                for (Sales sale : sales) {
-                    writer.append(String.valueOf(sale.getId())).append(",");
-                    writer.append(sale.getSaleDate() != null ? 
-                        sale.getSaleDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "").append(",");
-                    writer.append(String.format("%.2f", sale.getTotalAmount())).append(",");
-                    writer.append(String.valueOf(sale.getTotalItems())).append(",");
-                    writer.append(sale.getCashierEmail() != null ? sale.getCashierEmail() : "N/A").append("\n");
-                }
-                
-                // Write summary
-                writer.append("\n");
-                writer.append("Summary\n");
-                writer.append("Total Transactions,").append(String.valueOf(sales.size())).append("\n");
-                
-                double totalSales = sales.stream().mapToDouble(Sales::getTotalAmount).sum();
-                int totalItems = sales.stream().mapToInt(Sales::getTotalItems).sum();
-                double averageSale = sales.size() > 0 ? totalSales / sales.size() : 0.0;
-                
-                writer.append("Total Sales,").append(String.format("%.2f", totalSales)).append("\n");
-                writer.append("Total Items Sold,").append(String.valueOf(totalItems)).append("\n");
-                writer.append("Average Sale,").append(String.format("%.2f", averageSale)).append("\n");
-                
-                if (reportStartDate != null && reportEndDate != null) {
-                    writer.append("Report Period,").append(reportStartDate.toString())
-                          .append(" to ").append(reportEndDate.toString()).append("\n");
-                }
-                
-                showAlert(Alert.AlertType.INFORMATION, "Success", "Report exported to CSV successfully!");
-            } catch (IOException e) {
-                e.printStackTrace();
-                showAlert("Error exporting to CSV: " + e.getMessage());
+        if (file == null) {
+            return;
+        }
+
+        if (exportRanking) {
+            exportRanking(file);
+            return;
+        }
+        if (showingDailyTotals && !includeItems) {
+            exportDailyTotals(file);
+            return;
+        }
+
+        LocalDateTime start = reportStartDate != null ? reportStartDate.atStartOfDay() : null;
+        LocalDateTime end = reportEndDate != null ? reportEndDate.plusDays(1).atStartOfDay() : null;
+        exportLoader.load(
+            () -> new SalesCsvExporter().export(file.toPath(), start, end, includeItems),
+            result -> showAlert(Alert.AlertType.INFORMATION, "Success",
+                    "Exported " + result.getSaleCount() + " sales (" + result.getRowCount() + " rows) to CSV successfully!"),
+            error -> showAlert("Error exporting to CSV: " + error.getMessage())
+        );
+    }
+
+    private void exportRanking(File file) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
+            writer.append(rankingOrderBox.getValue()).append(" by ").append(rankingMetricBox.getValue()).append("\n");
+            writer.append("Rank,Product ID,Product,Quantity,Revenue,Unit Cost,Margin\n");
+            int rank = 1;
+            for (ProductSalesRanking.Row row : ranking) {
+                writer.append(String.valueOf(rank++)).append(",");
+                writer.append(String.valueOf(row.getProductId())).append(",");
+                writer.append(csvText(row.getProductName())).append(",");
+                writer.append(String.valueOf(row.getQuantity())).append(",");
+                writer.append(String.format("%.2f", row.getRevenue())).append(",");
+                writer.append(row.getUnitCost() != null ? String.format("%.2f", row.getUnitCost()) : "").append(",");
+                writer.append(row.getMargin() != null ? String.format("%.2f", row.getMargin()) : "").append("\n");
+            }
+            if (reportStartDate != null && reportEndDate != null) {
+                writer.append("\nReport Period,").append(reportStartDate.toString())
+                      .append(" to ").append(reportEndDate.toString()).append("\n");
             }
+            showAlert(Alert.AlertType.INFORMATION, "Success", "Report exported to CSV successfully!");
+        } catch (IOException e) {
+            e.printStackTrace();
+            showAlert("Error exporting to CSV: " + e.getMessage());
         }
     }
 
-    private void createSalesTableIfNotExists() {
-        try (Connection con = Database.connect()) {
-            if (con == null) return;
+    private static String csvText(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private void exportDailyTotals(File file) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
+            // Write header
+            writer.append("Sales,Date,Total Amount,Items,Cashier\n");
+            
+            // Write data
+            for (Sales sale : sales) {
+                writer.append(String.valueOf(sale.getId())).append(",");
+                writer.append(sale.getSaleDate() != null ? formatDate(sale.getSaleDate()) : "").append(",");
+                writer.append(String.format("%.2f", sale.getTotalAmount())).append(",");
+                writer.append(String.valueOf(sale.getTotalItems())).append(",");
+                writer.append(formatCashier(sale)).append("\n");
+            }
             
-            String createSalesTable = "CREATE TABLE IF NOT EXISTS sales (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                    "saleDate DATETIME NOT NULL, " +
-                    "totalAmount DECIMAL(10,2) NOT NULL, " +
-                    "totalItems INT NOT NULL, " +
-                    "cashierEmail VARCHAR(255)" +
-                    ")";
-            con.createStatement().executeUpdate(createSalesTable);
+            // Write summary
+            writer.append("\n");
+            writer.append("Summary\n");
+            writer.append("Total Transactions,").append(String.valueOf(summary.getTransactionCount())).append("\n");
+            writer.append("Total Sales,").append(String.format("%.2f", summary.getTotalAmount())).append("\n");
+            writer.append("Total Items Sold,").append(String.valueOf(summary.getTotalItems())).append("\n");
+            writer.append("Average Sale,").append(String.format("%.2f", summary.getAverageSale())).append("\n");
             
-            String createSaleItemsTable = "CREATE TABLE IF NOT EXISTS sale_items (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                    "saleId INT NOT NULL, " +
-                    "productId INT NOT NULL, " +
-                    "productName VARCHAR(255) NOT NULL, " +
-                    "quantity INT NOT NULL, " +
-                    "price DECIMAL(10,2) NOT NULL, " +
-                    "subtotal DECIMAL(10,2) NOT NULL, " +
-                    "FOREIGN KEY (saleId) REFERENCES sales(id) ON DELETE CASCADE" +
-                    ")";
-            con.createStatement().executeUpdate(createSaleItemsTable);
+            if (reportStartDate != null && reportEndDate != null) {
+                writer.append("Report Period,").append(reportStartDate.toString())
+                      .append(" to ").append(reportEndDate.toString()).append("\n");
+            }
             
-        } catch (SQLException e) {
-            System.err.println("Error creating sales tables: " + e.getMessage());
+            showAlert(Alert.AlertType.INFORMATION, "Success", "Report exported to CSV successfully!");
+        } catch (IOException e) {
             e.printStackTrace();
+            showAlert("Error exporting to CSV: " + e.getMessage());
         }
     }
 
@@ -1,7 +1,11 @@
 package controller;
 
+import app.SaleItem;
 import app.Sales;
-import database.Database;
+import app.SalesSummary;
+import cache.SaleItemCache;
+import dao.SalesRollupDAO;
+import dao.impl.SalesRollupDAOImpl;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -13,8 +17,9 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.net.URL;
-import java.sql.*;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.ResourceBundle;
 
 public class SalesController implements Initializable {
@@ -32,10 +37,12 @@ public class SalesController implements Initializable {
     @FXML private Label totalItemsSoldLabel;
 
     private ObservableList<Sales> sales = FXCollections.observableArrayList();
+    // Rows are paged in as the table scrolls; the labels come from the rollup
+    private SalesPager pager;
+    private final SalesRollupDAO rollupDAO = new SalesRollupDAOImpl();
 
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        createSalesTableIfNotExists();
         setupTable();
         loadSales();
     }
@@ -96,40 +103,13 @@ public class SalesController implements Initializable {
         salesTable.getColumns().add(colAction);
         
         salesTable.setItems(sales);
+        pager = new SalesPager(salesTable, sales, () -> showAlert("Error loading sales!"));
     }
 
     @FXML
     private void loadSales() {
-        sales.clear();
-        try (Connection con = Database.connect()) {
-            if (con == null) {
-                showAlert("Database connection failed!");
-                return;
-            }
-            
-            String query = "SELECT * FROM sales ORDER BY saleDate DESC";
-            ResultSet rs = con.createStatement().executeQuery(query);
-            
-            while (rs.next()) {
-                Sales sale = new Sales();
-                sale.setId(rs.getInt("id"));
-                
-                Timestamp timestamp = rs.getTimestamp("saleDate");
-                if (timestamp != null) {
-                    sale.setSaleDate(timestamp.toLocalDateTime());
-                }
-                
-                sale.setTotalAmount(rs.getDouble("totalAmount"));
-                sale.setTotalItems(rs.getInt("totalItems"));
-                sale.setCashierEmail(rs.getString("cashierEmail"));
-                sales.add(sale);
-            }
-            
-            updateSummary();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Error loading sales: " + e.getMessage());
-        }
+        pager.start(null);
+        updateSummary(rollupDAO.summarize(null, null));
     }
 
     @FXML
@@ -141,39 +121,8 @@ public class SalesController implements Initializable {
             return;
         }
         
-        sales.clear();
-        try (Connection con = Database.connect()) {
-            if (con == null) {
-                showAlert("Database connection failed!");
-                return;
-            }
-            
-            String query = "SELECT * FROM sales WHERE LOWER(cashierEmail) LIKE ? ORDER BY saleDate DESC";
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setString(1, "%" + searchTerm + "%");
-            
-            ResultSet rs = ps.executeQuery();
-            
-            while (rs.next()) {
-                Sales sale = new Sales();
-                sale.setId(rs.getInt("id"));
-                
-                Timestamp timestamp = rs.getTimestamp("saleDate");
-                if (timestamp != null) {
-                    sale.setSaleDate(timestamp.toLocalDateTime());
-                }
-                
-                sale.setTotalAmount(rs.getDouble("totalAmount"));
-                sale.setTotalItems(rs.getInt("totalItems"));
-                sale.setCashierEmail(rs.getString("cashierEmail"));
-                sales.add(sale);
-            }
-            
-            updateSummary();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert("Error searching sales: " + e.getMessage());
-        }
+        pager.start(searchTerm);
+        updateSummary(rollupDAO.summarizeCashierSearch(searchTerm));
     }
 
     @FXML
@@ -182,97 +131,48 @@ public class SalesController implements Initializable {
         loadSales();
     }
 
-    private void updateSummary() {
-        int totalSales = sales.size();
-        double totalRevenue = 0.0;
-        int totalItems = 0;
-        
-        for (Sales sale : sales) {
-            totalRevenue += sale.getTotalAmount();
-            totalItems += sale.getTotalItems();
-        }
-        
-        totalSalesLabel.setText(String.valueOf(totalSales));
-        totalRevenueLabel.setText(String.format("₱%.2f", totalRevenue));
-        totalItemsSoldLabel.setText(String.valueOf(totalItems));
+    private void updateSummary(SalesSummary summary) {
+        totalSalesLabel.setText(String.valueOf(summary.getTransactionCount()));
+        totalRevenueLabel.setText(String.format("₱%.2f", summary.getTotalAmount()));
+        totalItemsSoldLabel.setText(String.valueOf(summary.getTotalItems()));
     }
 
     private void viewSaleDetails(Sales sale) {
-        try (Connection con = Database.connect()) {
-            if (con == null) {
-                showAlert("Database connection failed!");
-                return;
-            }
-            
-            String query = "SELECT * FROM sale_items WHERE saleId = ?";
-            PreparedStatement ps = con.prepareStatement(query);
-            ps.setInt(1, sale.getId());
-            
-            ResultSet rs = ps.executeQuery();
-            
-            StringBuilder details = new StringBuilder();
-            details.append("Sale ID: ").append(sale.getId()).append("\n");
-            details.append("Date: ").append(sale.getSaleDate()).append("\n");
-            details.append("Cashier: ").append(sale.getCashierEmail()).append("\n");
-            details.append("Total: ₱").append(String.format("%.2f", sale.getTotalAmount())).append("\n\n");
-            details.append("Items:\n");
-            details.append("----------------------------------------\n");
-            
-            int itemNum = 1;
-            while (rs.next()) {
-                details.append(itemNum++).append(". ")
-                       .append(rs.getString("productName"))
-                       .append(" - Qty: ").append(rs.getInt("quantity"))
-                       .append(" - Price: ₱").append(String.format("%.2f", rs.getDouble("price")))
-                       .append(" - Subtotal: ₱").append(String.format("%.2f", rs.getDouble("subtotal")))
-                       .append("\n");
-            }
-            
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Sale Details");
-            alert.setHeaderText("Sale #" + sale.getId());
-            alert.setContentText(details.toString());
-            alert.setResizable(true);
-            alert.getDialogPane().setPrefSize(500, 400);
-            alert.showAndWait();
-            
+        List<SaleItem> items;
+        try {
+            // Usually already prefetched with the page the sale was listed on
+            items = SaleItemCache.getInstance().get(sale.getId());
         } catch (SQLException e) {
             e.printStackTrace();
             showAlert("Error loading sale details: " + e.getMessage());
+            return;
         }
-    }
-
-    private void createSalesTableIfNotExists() {
-        try (Connection con = Database.connect()) {
-            if (con == null) return;
-            
-            // Create sales table
-            String createSalesTable = "CREATE TABLE IF NOT EXISTS sales (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                    "saleDate DATETIME NOT NULL, " +
-                    "totalAmount DECIMAL(10,2) NOT NULL, " +
-                    "totalItems INT NOT NULL, " +
-                    "cashierEmail VARCHAR(255)" +
-                    ")";
-            con.createStatement().executeUpdate(createSalesTable);
-            
-            // Create sale_items table
-            String createSaleItemsTable = "CREATE TABLE IF NOT EXISTS sale_items (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                    "saleId INT NOT NULL, " +
-                    "productId INT NOT NULL, " +
-                    "productName VARCHAR(255) NOT NULL, " +
-                    "quantity INT NOT NULL, " +
-                    "price DECIMAL(10,2) NOT NULL, " +
-                    "subtotal DECIMAL(10,2) NOT NULL, " +
-                    "FOREIGN KEY (saleId) REFERENCES sales(id) ON DELETE CASCADE" +
-                    ")";
-            con.createStatement().executeUpdate(createSaleItemsTable);
-            
-        } catch (SQLException e) {
-            System.err.println("Error creating sales tables: " + e.getMessage());
-            e.printStackTrace();
+        
+        StringBuilder details = new StringBuilder();
+        details.append("Sale ID: ").append(sale.getId()).append("\n");
+        details.append("Date: ").append(sale.getSaleDate()).append("\n");
+        details.append("Cashier: ").append(sale.getCashierEmail()).append("\n");
+        details.append("Total: ₱").append(String.format("%.2f", sale.getTotalAmount())).append("\n\n");
+        details.append("Items:\n");
+        details.append("----------------------------------------\n");
+        
+        int itemNum = 1;
+        for (SaleItem item : items) {
+            details.append(itemNum++).append(". ")
+                   .append(item.getProductName())
+                   .append(" - Qty: ").append(item.getQuantity())
+                   .append(" - Price: ₱").append(String.format("%.2f", item.getPrice()))
+                   .append(" - Subtotal: ₱").append(String.format("%.2f", item.getSubtotal()))
+                   .append("\n");
         }
+        
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Sale Details");
+        alert.setHeaderText("Sale #" + sale.getId());
+        alert.setContentText(details.toString());
+        alert.setResizable(true);
+        alert.getDialogPane().setPrefSize(500, 400);
+        alert.showAndWait();
     }
 
     private void showAlert(String message) {
@@ -0,0 +1,118 @@
+package controller;
+
+import app.Sales;
+import cache.SaleItemCache;
+import dao.SalesDAO;
+import dao.impl.SalesDAOImpl;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds a sales TableView one page at a time, newest first.
+ *
+ * Pages are read with {@link SalesDAO#findPage} using the last loaded row as
+ * the keyset cursor, so every page costs the same however deep the user
+ * scrolls. The next page is requested when the table is scrolled near the
+ * bottom (or when the rows loaded so far do not fill it yet); only what the
+ * user has scrolled through is ever held in memory. The line items of each
+ * loaded page are prefetched into {@link SaleItemCache} in the background.
+ */
+class SalesPager {
+
+    private static final int PAGE_SIZE = 100;
+    private static final double PREFETCH_AT = 0.85; // fraction of the scroll range
+
+    private final TableView<Sales> table;
+    private final ObservableList<Sales> items;
+    private final SalesDAO salesDAO = new SalesDAOImpl();
+    private final AsyncLoader<List<Sales>> loader = new AsyncLoader<>();
+    private final Runnable onError;
+
+    private ScrollBar verticalBar;
+    private boolean active;
+    private boolean loading;
+    private boolean exhausted;
+    private String cashierSearch;
+
+    SalesPager(TableView<Sales> table, ObservableList<Sales> items, Runnable onError) {
+        this.table = table;
+        this.items = items;
+        this.onError = onError;
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> attachScrollBar());
+        attachScrollBar();
+    }
+
+    /** Clear the table and start paging from the newest sale; cashierSearch may be null */
+    void start(String cashierSearch) {
+        this.cashierSearch = cashierSearch;
+        active = true;
+        exhausted = false;
+        loading = false;
+        items.clear();
+        loadNextPage();
+    }
+
+    /** Stop paging; the table's contents are left to the caller */
+    void stop() {
+        active = false;
+        loading = false;
+        loader.cancel();
+    }
+
+    private void loadNextPage() {
+        if (!active || loading || exhausted) return;
+        loading = true;
+        Sales after = items.isEmpty() ? null : items.get(items.size() - 1);
+        String search = cashierSearch;
+        loader.load(
+            () -> salesDAO.findPage(after, search, PAGE_SIZE),
+            page -> {
+                loading = false;
+                items.addAll(page);
+                prefetchItems(page);
+                exhausted = page.size() < PAGE_SIZE;
+                if (!exhausted && (verticalBar == null || !verticalBar.isVisible())) {
+                    loadNextPage(); // not scrollable yet, so no scroll event will ask for more
+                }
+            },
+            error -> {
+                loading = false;
+                onError.run();
+            }
+        );
+    }
+
+    /** Warm the item cache for this page so "Details" opens without a query */
+    private void prefetchItems(List<Sales> page) {
+        if (page.isEmpty()) return;
+        List<Integer> saleIds = new ArrayList<>(page.size());
+        for (Sales sale : page) {
+            saleIds.add(sale.getId());
+        }
+        Thread.startVirtualThread(() -> SaleItemCache.getInstance().prefetch(saleIds));
+    }
+
+    private void attachScrollBar() {
+        if (verticalBar != null || table.getSkin() == null) return;
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                verticalBar = (ScrollBar) node;
+                verticalBar.valueProperty().addListener((obs, oldValue, value) -> {
+                    if (value.doubleValue() >= verticalBar.getMax() * PREFETCH_AT) {
+                        loadNextPage();
+                    }
+                });
+                verticalBar.visibleProperty().addListener((obs, wasVisible, visible) -> {
+                    if (!visible) loadNextPage();
+                });
+                return;
+            }
+        }
+    }
+}
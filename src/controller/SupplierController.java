@@ -1,6 +1,8 @@
 package controller;
 
 import app.Supplier;
+import cache.ProductCatalog;
+import cache.ReferenceData;
 import database.Database;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -81,6 +83,7 @@ public class SupplierController {
             ps.setString(3, txtPhone.getText().trim());
             ps.setString(4, txtAddress.getText().trim());
             ps.executeUpdate();
+            ReferenceData.getInstance().invalidateSuppliers();
 
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) suppliers.add(new Supplier(rs.getInt(1), name, txtEmail.getText().trim(), txtPhone.getText().trim(), txtAddress.getText().trim()));
@@ -107,6 +110,8 @@ public class SupplierController {
             ps.setString(4, txtAddress.getText().trim());
             ps.setInt(5, s.getId());
             ps.executeUpdate();
+            ReferenceData.getInstance().invalidateSuppliers();
+            ProductCatalog.getInstance().invalidate(); // cached products show the supplier name
 
             s.setName(txtName.getText().trim());
             s.setEmail(txtEmail.getText().trim());
@@ -132,6 +137,8 @@ public class SupplierController {
             PreparedStatement ps = con.prepareStatement(sql);
             ps.setInt(1, s.getId());
             ps.executeUpdate();
+            ReferenceData.getInstance().invalidateSuppliers();
+            ProductCatalog.getInstance().invalidate();
 
             suppliers.remove(s);
             
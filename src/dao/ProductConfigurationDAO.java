@@ -0,0 +1,12 @@
+package dao;
+
+import app.ProductConfiguration;
+import java.sql.SQLException;
+import java.util.Map;
+
+public interface ProductConfigurationDAO {
+    // Variants, modifiers with options, and bundle components of one product in a single query
+    ProductConfiguration findByProductId(int productId) throws SQLException;
+    // The same for every product that has any, keyed by product id
+    Map<Integer, ProductConfiguration> findAll() throws SQLException;
+}
@@ -1,12 +1,17 @@
 package dao;
 
 import app.Product;
+import java.sql.SQLException;
 import java.util.List;
 
 public interface ProductDAO {
     List<Product> findAll();
+    // Same as findAll(), but a failed query is thrown instead of returning an empty list
+    List<Product> loadAll() throws SQLException;
     Product findById(int id);
     Product findByName(String name);
+    Product findByBarcode(String barcode);
+    Product findBySku(String sku);
     List<Product> findByCategory(String categoryName);
     List<Product> findBySupplier(String supplierName);
     int insert(Product product);
@@ -1,12 +1,18 @@
 package dao;
 
 import app.ProductModifierOption;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ProductModifierOptionDAO {
     List<ProductModifierOption> findAll();
     List<ProductModifierOption> findByModifierId(int modifierId);
     List<ProductModifierOption> findByProductId(int productId);
+    // Options of many modifiers in one round trip per 100 ids, keyed by modifier id; every requested id is a key
+    Map<Integer, List<ProductModifierOption>> findByModifierIds(Collection<Integer> modifierIds);
+    // Options of every modifier of the given products, keyed by modifier id (modifiers without options are absent)
+    Map<Integer, List<ProductModifierOption>> findByProductIds(Collection<Integer> productIds);
     ProductModifierOption findById(int id);
     int insert(ProductModifierOption option);
     boolean update(ProductModifierOption option);
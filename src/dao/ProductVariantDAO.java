@@ -7,6 +7,8 @@ public interface ProductVariantDAO {
     List<ProductVariant> findAll();
     List<ProductVariant> findByProductId(int productId);
     ProductVariant findById(int id);
+    ProductVariant findByBarcode(String barcode);
+    ProductVariant findBySku(String sku);
     int insert(ProductVariant variant);
     boolean update(ProductVariant variant);
     boolean delete(int id);
@@ -0,0 +1,13 @@
+package dao;
+
+import app.SaleItem;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface SaleItemDAO {
+    List<SaleItem> findBySaleId(int saleId) throws SQLException;
+    // Items of many sales in as few queries as possible; every requested id is a key, possibly with no items
+    Map<Integer, List<SaleItem>> findBySaleIds(Collection<Integer> saleIds) throws SQLException;
+}
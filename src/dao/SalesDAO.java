@@ -1,6 +1,9 @@
 package dao;
 
 import app.Sales;
+import app.SalesSummary;
+import app.ShiftSummary;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -9,8 +12,16 @@ public interface SalesDAO {
     Sales findById(int id);
     List<Sales> findByDateRange(LocalDateTime startDate, LocalDateTime endDate);
     List<Sales> findByCashier(String cashierEmail);
+    // One cashier's sales with start <= saleDate < end, answered from idx_sales_cashier_date
+    ShiftSummary getShiftSummary(String cashierEmail, LocalDateTime start, LocalDateTime end);
+    // Newest first, starting after the given sale (null for the first page); cashierSearch is an
+    // email prefix and may be null
+    List<Sales> findPage(Sales after, String cashierSearch, int pageSize) throws SQLException;
     int insert(Sales sale);
     double getTotalSalesByDateRange(LocalDateTime startDate, LocalDateTime endDate);
     int getTotalItemsSoldByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+    // Count, totals, average, smallest and largest sale for [start, end) in one query;
+    // both bounds null means all time
+    SalesSummary summarize(LocalDateTime start, LocalDateTime end) throws SQLException;
 }
 
@@ -0,0 +1,22 @@
+package dao;
+
+import app.SalesSummary;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Hourly per-cashier sales totals, kept up to date as sales are written.
+ * Ranges are half-open [start, end) and should fall on hour boundaries.
+ */
+public interface SalesRollupDAO {
+    // Add one sale to its bucket using the caller's connection, so it commits with the sale
+    void recordSale(Connection con, LocalDateTime saleDate, String cashierEmail,
+                    double totalAmount, int totalItems) throws SQLException;
+    // Totals over the range; both bounds null means all time
+    SalesSummary summarize(LocalDateTime start, LocalDateTime end);
+    // All-time totals for cashiers whose email starts with the search term
+    SalesSummary summarizeCashierSearch(String cashierSearch);
+    List<SalesSummary> findDaily(LocalDateTime start, LocalDateTime end);
+}
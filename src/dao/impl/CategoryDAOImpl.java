@@ -2,6 +2,7 @@ package dao.impl;
 
 import dao.CategoryDAO;
 import app.Category;
+import cache.ReferenceData;
 import database.Database;
 import java.sql.*;
 import java.util.ArrayList;
@@ -63,6 +64,7 @@ public class CategoryDAOImpl implements CategoryDAO {
             PreparedStatement ps = con.prepareStatement("INSERT INTO Category(name) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, category.getName());
             ps.executeUpdate();
+            ReferenceData.getInstance().invalidateCategories();
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) {
                 return rs.getInt(1);
@@ -80,7 +82,11 @@ public class CategoryDAOImpl implements CategoryDAO {
             PreparedStatement ps = con.prepareStatement("UPDATE Category SET name=? WHERE id=?");
             ps.setString(1, category.getName());
             ps.setInt(2, category.getId());
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            if (changed) {
+                ReferenceData.getInstance().invalidateCategories();
+            }
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -93,7 +99,11 @@ public class CategoryDAOImpl implements CategoryDAO {
             if (con == null) return false;
             PreparedStatement ps = con.prepareStatement("DELETE FROM Category WHERE id=?");
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            if (changed) {
+                ReferenceData.getInstance().invalidateCategories();
+            }
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,44 @@
+package dao.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Helpers for "column IN (?, ?, ...)" queries over many ids. Lists are padded
+ * to one of a few sizes (repeating the last id) so only that many statement
+ * shapes reach MySQL and the statement cache.
+ */
+final class InList {
+
+    private static final int[] SIZES = {1, 10, 100};
+
+    /** Largest number of ids sent in one statement; split longer lists into chunks of this size */
+    static final int MAX_SIZE = 100;
+
+    private InList() {}
+
+    /** Number of placeholders to use for {@code count} ids, at most {@link #MAX_SIZE} */
+    static int size(int count) {
+        for (int size : SIZES) {
+            if (count <= size) return size;
+        }
+        return MAX_SIZE;
+    }
+
+    /** "?, ?, ..." with {@code count} placeholders */
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+
+    /** Bind the chunk to {@code size} placeholders starting at {@code firstIndex}, padding with its last id */
+    static void bind(PreparedStatement ps, int firstIndex, List<Integer> chunk, int size) throws SQLException {
+        for (int i = 0; i < size; i++) {
+            ps.setInt(firstIndex + i, chunk.get(Math.min(i, chunk.size() - 1)));
+        }
+    }
+}
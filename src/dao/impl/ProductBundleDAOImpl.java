@@ -2,6 +2,8 @@ package dao.impl;
 
 import dao.ProductBundleDAO;
 import app.ProductBundle;
+import cache.ProductConfigurationCache;
+import cache.ScanIndex;
 import database.Database;
 import java.sql.*;
 import java.util.ArrayList;
@@ -89,6 +91,8 @@ public class ProductBundleDAOImpl implements ProductBundleDAO {
             ps.setInt(2, bundle.getItemProductId());
             ps.setInt(3, bundle.getQuantity());
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) {
                 return rs.getInt(1);
@@ -110,7 +114,10 @@ public class ProductBundleDAOImpl implements ProductBundleDAO {
             ps.setInt(2, bundle.getItemProductId());
             ps.setInt(3, bundle.getQuantity());
             ps.setInt(4, bundle.getId());
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -123,7 +130,10 @@ public class ProductBundleDAOImpl implements ProductBundleDAO {
             if (con == null) return false;
             PreparedStatement ps = con.prepareStatement("DELETE FROM ProductBundle WHERE id=?");
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,173 @@
+package dao.impl;
+
+import dao.ProductConfigurationDAO;
+import app.ProductBundle;
+import app.ProductConfiguration;
+import app.ProductModifier;
+import app.ProductModifierOption;
+import app.ProductVariant;
+import database.Database;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductConfigurationDAOImpl implements ProductConfigurationDAO {
+
+    // One UNION ALL over the four tables, so a configuration costs one round trip.
+    // kind tells the row apart: V variant, M modifier, O modifier option, B bundle
+    // component. ownerId is the product id, except for options, where it is the
+    // modifier id; the remaining columns are shared as commented on each branch.
+    private static final String QUERY =
+        // V: amount = stock, detail = attributes, flag = isActive
+        "SELECT 'V' AS kind, pv.id, pv.productId AS ownerId, pv.name, pv.sku, pv.barcode, pv.price, pv.cost, " +
+        "pv.stock AS amount, NULL AS refId, pv.attributes AS detail, pv.isActive AS flag, p.name AS productName " +
+        "FROM ProductVariant pv LEFT JOIN Product p ON pv.productId = p.id WHERE %1$s " +
+        "UNION ALL " +
+        // M: detail = type, flag = required
+        "SELECT 'M', pm.id, pm.productId, pm.name, NULL, NULL, NULL, NULL, " +
+        "NULL, NULL, pm.type, pm.required, p.name " +
+        "FROM ProductModifier pm LEFT JOIN Product p ON pm.productId = p.id WHERE %2$s " +
+        "UNION ALL " +
+        // O: detail = modifier display name
+        "SELECT 'O', pmo.id, pmo.modifierId, pmo.name, NULL, NULL, pmo.price, NULL, " +
+        "NULL, NULL, CONCAT(p.name, ' - ', pm.name), NULL, p.name " +
+        "FROM ProductModifierOption pmo JOIN ProductModifier pm ON pmo.modifierId = pm.id " +
+        "LEFT JOIN Product p ON pm.productId = p.id WHERE %2$s " +
+        "UNION ALL " +
+        // B: amount = quantity, refId = itemProductId, detail = item product name
+        "SELECT 'B', pb.id, pb.bundleProductId, NULL, NULL, NULL, NULL, NULL, " +
+        "pb.quantity, pb.itemProductId, ip.name, NULL, bp.name " +
+        "FROM ProductBundle pb LEFT JOIN Product bp ON pb.bundleProductId = bp.id " +
+        "LEFT JOIN Product ip ON pb.itemProductId = ip.id WHERE %3$s " +
+        "ORDER BY id";
+
+    private static final String FIND_BY_PRODUCT = String.format(QUERY,
+            "pv.productId = ?", "pm.productId = ?", "pb.bundleProductId = ?");
+    private static final String FIND_ALL = String.format(QUERY, "1 = 1", "1 = 1", "1 = 1");
+
+    @Override
+    public ProductConfiguration findByProductId(int productId) throws SQLException {
+        try (Connection con = Database.connect()) {
+            if (con == null) throw new SQLException("Database connection failed!");
+            PreparedStatement ps = con.prepareStatement(FIND_BY_PRODUCT);
+            for (int i = 1; i <= 4; i++) {
+                ps.setInt(i, productId);
+            }
+            ProductConfiguration configuration = read(ps.executeQuery()).get(productId);
+            return configuration != null ? configuration : ProductConfiguration.empty(productId);
+        }
+    }
+
+    @Override
+    public Map<Integer, ProductConfiguration> findAll() throws SQLException {
+        try (Connection con = Database.connect()) {
+            if (con == null) throw new SQLException("Database connection failed!");
+            return read(con.createStatement().executeQuery(FIND_ALL));
+        }
+    }
+
+    private Map<Integer, ProductConfiguration> read(ResultSet rs) throws SQLException {
+        Map<Integer, List<ProductVariant>> variants = new HashMap<>();
+        Map<Integer, List<ProductModifier>> modifiers = new HashMap<>();
+        Map<Integer, List<ProductBundle>> bundles = new HashMap<>();
+        Map<Integer, ProductModifier> modifiersById = new HashMap<>();
+        List<ProductModifierOption> options = new ArrayList<>();
+
+        while (rs.next()) {
+            int ownerId = rs.getInt("ownerId");
+            switch (rs.getString("kind")) {
+                case "V":
+                    variants.computeIfAbsent(ownerId, id -> new ArrayList<>()).add(mapVariant(rs));
+                    break;
+                case "M":
+                    ProductModifier modifier = mapModifier(rs);
+                    modifiers.computeIfAbsent(ownerId, id -> new ArrayList<>()).add(modifier);
+                    modifiersById.put(modifier.getId(), modifier);
+                    break;
+                case "O":
+                    options.add(mapOption(rs));
+                    break;
+                case "B":
+                    bundles.computeIfAbsent(ownerId, id -> new ArrayList<>()).add(mapBundle(rs));
+                    break;
+            }
+        }
+
+        // Rows come back by id, not by kind, so options are attached once every modifier is known
+        for (ProductModifier modifier : modifiersById.values()) {
+            modifier.setOptions(new ArrayList<>());
+        }
+        for (ProductModifierOption option : options) {
+            ProductModifier modifier = modifiersById.get(option.getModifierId());
+            if (modifier != null) {
+                modifier.getOptions().add(option);
+            }
+        }
+
+        Map<Integer, ProductConfiguration> configurations = new HashMap<>();
+        List<Integer> productIds = new ArrayList<>(variants.keySet());
+        productIds.addAll(modifiers.keySet());
+        productIds.addAll(bundles.keySet());
+        for (int productId : productIds) {
+            configurations.computeIfAbsent(productId, id -> new ProductConfiguration(id,
+                variants.getOrDefault(id, new ArrayList<>()),
+                modifiers.getOrDefault(id, new ArrayList<>()),
+                bundles.getOrDefault(id, new ArrayList<>())
+            ));
+        }
+        return configurations;
+    }
+
+    private ProductVariant mapVariant(ResultSet rs) throws SQLException {
+        Object costObj = rs.getObject("cost");
+        ProductVariant variant = new ProductVariant(
+            rs.getInt("id"),
+            rs.getString("name"),
+            rs.getString("sku"),
+            rs.getString("barcode"),
+            rs.getDouble("price"),
+            costObj != null ? rs.getDouble("cost") : null,
+            rs.getInt("amount"),
+            rs.getString("detail"),
+            rs.getBoolean("flag"),
+            rs.getString("productName")
+        );
+        variant.setProductId(rs.getInt("ownerId"));
+        return variant;
+    }
+
+    private ProductModifier mapModifier(ResultSet rs) throws SQLException {
+        ProductModifier modifier = new ProductModifier();
+        modifier.setId(rs.getInt("id"));
+        modifier.setProductId(rs.getInt("ownerId"));
+        modifier.setName(rs.getString("name"));
+        modifier.setType(rs.getString("detail"));
+        modifier.setRequired(rs.getBoolean("flag"));
+        modifier.setProductName(rs.getString("productName"));
+        return modifier;
+    }
+
+    private ProductModifierOption mapOption(ResultSet rs) throws SQLException {
+        ProductModifierOption option = new ProductModifierOption(
+            rs.getInt("id"),
+            rs.getInt("ownerId"),
+            rs.getString("name"),
+            rs.getDouble("price")
+        );
+        option.setModifierName(rs.getString("detail"));
+        return option;
+    }
+
+    private ProductBundle mapBundle(ResultSet rs) throws SQLException {
+        return new ProductBundle(
+            rs.getInt("id"),
+            rs.getInt("ownerId"),
+            rs.getInt("refId"),
+            rs.getInt("amount"),
+            rs.getString("productName"),
+            rs.getString("detail")
+        );
+    }
+}
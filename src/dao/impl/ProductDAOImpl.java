@@ -2,6 +2,8 @@ package dao.impl;
 
 import dao.ProductDAO;
 import app.Product;
+import cache.ProductCatalog;
+import cache.ReferenceData;
 import database.Database;
 import java.sql.*;
 import java.util.ArrayList;
@@ -11,12 +13,23 @@ public class ProductDAOImpl implements ProductDAO {
 
     @Override
     public List<Product> findAll() {
+        try {
+            return loadAll();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public List<Product> loadAll() throws SQLException {
         List<Product> products = new ArrayList<>();
         try (Connection con = Database.connect()) {
-            if (con == null) return products;
+            if (con == null) throw new SQLTransientConnectionException("Database connection failed!");
             ResultSet rs = con.createStatement().executeQuery(
                 "SELECT p.id, p.name, p.description, p.sku, p.barcode, p.inventoryTracking, p.baseUnit, " +
                 "p.price, p.cost, p.initialStock, p.currentStock, p.reorderLevel, p.productType, p.isActive, " +
+                "p.categoryId, p.supplierId, " +
                 "c.name AS category, s.name AS supplier " +
                 "FROM Product p " +
                 "LEFT JOIN Category c ON p.categoryId = c.id " +
@@ -25,8 +38,6 @@ public class ProductDAOImpl implements ProductDAO {
             while (rs.next()) {
                 products.add(mapResultSetToProduct(rs));
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return products;
     }
@@ -38,6 +49,7 @@ public class ProductDAOImpl implements ProductDAO {
             PreparedStatement ps = con.prepareStatement(
                 "SELECT p.id, p.name, p.description, p.sku, p.barcode, p.inventoryTracking, p.baseUnit, " +
                 "p.price, p.cost, p.initialStock, p.currentStock, p.reorderLevel, p.productType, p.isActive, " +
+                "p.categoryId, p.supplierId, " +
                 "c.name AS category, s.name AS supplier " +
                 "FROM Product p " +
                 "LEFT JOIN Category c ON p.categoryId = c.id " +
@@ -62,6 +74,7 @@ public class ProductDAOImpl implements ProductDAO {
             PreparedStatement ps = con.prepareStatement(
                 "SELECT p.id, p.name, p.description, p.sku, p.barcode, p.inventoryTracking, p.baseUnit, " +
                 "p.price, p.cost, p.initialStock, p.currentStock, p.reorderLevel, p.productType, p.isActive, " +
+                "p.categoryId, p.supplierId, " +
                 "c.name AS category, s.name AS supplier " +
                 "FROM Product p " +
                 "LEFT JOIN Category c ON p.categoryId = c.id " +
@@ -79,6 +92,56 @@ public class ProductDAOImpl implements ProductDAO {
         return null;
     }
 
+    @Override
+    public Product findByBarcode(String barcode) {
+        try (Connection con = Database.connect()) {
+            if (con == null) return null;
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT p.id, p.name, p.description, p.sku, p.barcode, p.inventoryTracking, p.baseUnit, " +
+                "p.price, p.cost, p.initialStock, p.currentStock, p.reorderLevel, p.productType, p.isActive, " +
+                "p.categoryId, p.supplierId, " +
+                "c.name AS category, s.name AS supplier " +
+                "FROM Product p " +
+                "LEFT JOIN Category c ON p.categoryId = c.id " +
+                "LEFT JOIN Supplier s ON p.supplierId = s.id " +
+                "WHERE p.barcode = ?"
+            );
+            ps.setString(1, barcode);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return mapResultSetToProduct(rs);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    @Override
+    public Product findBySku(String sku) {
+        try (Connection con = Database.connect()) {
+            if (con == null) return null;
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT p.id, p.name, p.description, p.sku, p.barcode, p.inventoryTracking, p.baseUnit, " +
+                "p.price, p.cost, p.initialStock, p.currentStock, p.reorderLevel, p.productType, p.isActive, " +
+                "p.categoryId, p.supplierId, " +
+                "c.name AS category, s.name AS supplier " +
+                "FROM Product p " +
+                "LEFT JOIN Category c ON p.categoryId = c.id " +
+                "LEFT JOIN Supplier s ON p.supplierId = s.id " +
+                "WHERE p.sku = ?"
+            );
+            ps.setString(1, sku);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return mapResultSetToProduct(rs);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     @Override
     public List<Product> findByCategory(String categoryName) {
         List<Product> products = new ArrayList<>();
@@ -87,6 +150,7 @@ public class ProductDAOImpl implements ProductDAO {
             PreparedStatement ps = con.prepareStatement(
                 "SELECT p.id, p.name, p.description, p.sku, p.barcode, p.inventoryTracking, p.baseUnit, " +
                 "p.price, p.cost, p.initialStock, p.currentStock, p.reorderLevel, p.productType, p.isActive, " +
+                "p.categoryId, p.supplierId, " +
                 "c.name AS category, s.name AS supplier " +
                 "FROM Product p " +
                 "LEFT JOIN Category c ON p.categoryId = c.id " +
@@ -112,6 +176,7 @@ public class ProductDAOImpl implements ProductDAO {
             PreparedStatement ps = con.prepareStatement(
                 "SELECT p.id, p.name, p.description, p.sku, p.barcode, p.inventoryTracking, p.baseUnit, " +
                 "p.price, p.cost, p.initialStock, p.currentStock, p.reorderLevel, p.productType, p.isActive, " +
+                "p.categoryId, p.supplierId, " +
                 "c.name AS category, s.name AS supplier " +
                 "FROM Product p " +
                 "LEFT JOIN Category c ON p.categoryId = c.id " +
@@ -131,30 +196,14 @@ public class ProductDAOImpl implements ProductDAO {
 
     @Override
     public int insert(Product product) {
+        int newId = -1;
+        // Category and supplier ids come from memory, not a SELECT per save
+        ReferenceData referenceData = ReferenceData.getInstance();
+        Integer categoryId = referenceData.getCategoryId(product.getCategoryName());
+        Integer supplierId = referenceData.getSupplierId(product.getSupplierName());
         try (Connection con = Database.connect()) {
             if (con == null) return -1;
             
-            // Get categoryId and supplierId
-            Integer categoryId = null;
-            if (product.getCategoryName() != null) {
-                PreparedStatement psCat = con.prepareStatement("SELECT id FROM Category WHERE name = ?");
-                psCat.setString(1, product.getCategoryName());
-                ResultSet rsCat = psCat.executeQuery();
-                if (rsCat.next()) {
-                    categoryId = rsCat.getInt("id");
-                }
-            }
-            
-            Integer supplierId = null;
-            if (product.getSupplierName() != null) {
-                PreparedStatement psSup = con.prepareStatement("SELECT id FROM Supplier WHERE name = ?");
-                psSup.setString(1, product.getSupplierName());
-                ResultSet rsSup = psSup.executeQuery();
-                if (rsSup.next()) {
-                    supplierId = rsSup.getInt("id");
-                }
-            }
-            
             PreparedStatement ps = con.prepareStatement(
                 "INSERT INTO Product(name, description, categoryId, supplierId, sku, barcode, " +
                 "inventoryTracking, baseUnit, price, cost, initialStock, currentStock, reorderLevel, " +
@@ -193,40 +242,28 @@ public class ProductDAOImpl implements ProductDAO {
             ps.executeUpdate();
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) {
-                return rs.getInt(1);
+                newId = rs.getInt(1);
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return -1;
+        // After the connection is returned, so the catalog re-read does not hold two
+        if (newId > 0) {
+            ProductCatalog.getInstance().refresh(newId);
+        }
+        return newId;
     }
 
     @Override
     public boolean update(Product product) {
+        boolean updated = false;
+        // Category and supplier ids come from memory, not a SELECT per save
+        ReferenceData referenceData = ReferenceData.getInstance();
+        Integer categoryId = referenceData.getCategoryId(product.getCategoryName());
+        Integer supplierId = referenceData.getSupplierId(product.getSupplierName());
         try (Connection con = Database.connect()) {
             if (con == null) return false;
             
-            // Get categoryId and supplierId
-            Integer categoryId = null;
-            if (product.getCategoryName() != null) {
-                PreparedStatement psCat = con.prepareStatement("SELECT id FROM Category WHERE name = ?");
-                psCat.setString(1, product.getCategoryName());
-                ResultSet rsCat = psCat.executeQuery();
-                if (rsCat.next()) {
-                    categoryId = rsCat.getInt("id");
-                }
-            }
-            
-            Integer supplierId = null;
-            if (product.getSupplierName() != null) {
-                PreparedStatement psSup = con.prepareStatement("SELECT id FROM Supplier WHERE name = ?");
-                psSup.setString(1, product.getSupplierName());
-                ResultSet rsSup = psSup.executeQuery();
-                if (rsSup.next()) {
-                    supplierId = rsSup.getInt("id");
-                }
-            }
-            
             PreparedStatement ps = con.prepareStatement(
                 "UPDATE Product SET name=?, description=?, categoryId=?, supplierId=?, sku=?, barcode=?, " +
                 "inventoryTracking=?, baseUnit=?, price=?, cost=?, initialStock=?, currentStock=?, reorderLevel=?, " +
@@ -261,11 +298,14 @@ public class ProductDAOImpl implements ProductDAO {
             ps.setBoolean(15, product.isIsActive());
             ps.setInt(16, product.getId());
             
-            return ps.executeUpdate() > 0;
+            updated = ps.executeUpdate() > 0;
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return false;
+        if (updated) {
+            ProductCatalog.getInstance().refresh(product.getId());
+        }
+        return updated;
     }
 
     @Override
@@ -274,7 +314,11 @@ public class ProductDAOImpl implements ProductDAO {
             if (con == null) return false;
             PreparedStatement ps = con.prepareStatement("DELETE FROM Product WHERE id=?");
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            boolean deleted = ps.executeUpdate() > 0;
+            if (deleted) {
+                ProductCatalog.getInstance().remove(id);
+            }
+            return deleted;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -288,7 +332,11 @@ public class ProductDAOImpl implements ProductDAO {
             PreparedStatement ps = con.prepareStatement("UPDATE Product SET currentStock = ? WHERE id = ?");
             ps.setInt(1, newStock);
             ps.setInt(2, productId);
-            return ps.executeUpdate() > 0;
+            boolean updated = ps.executeUpdate() > 0;
+            if (updated) {
+                ProductCatalog.getInstance().setStock(productId, newStock);
+            }
+            return updated;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -312,6 +360,8 @@ public class ProductDAOImpl implements ProductDAO {
         product.setReorderLevel(rs.getInt("reorderLevel"));
         product.setProductType(rs.getString("productType"));
         product.setIsActive(rs.getBoolean("isActive"));
+        product.setCategoryId(rs.getInt("categoryId"));
+        product.setSupplierId(rs.getInt("supplierId"));
         product.setCategoryName(rs.getString("category"));
         product.setSupplierName(rs.getString("supplier"));
         return product;
@@ -2,6 +2,8 @@ package dao.impl;
 
 import dao.ProductModifierDAO;
 import app.ProductModifier;
+import cache.ProductConfigurationCache;
+import cache.ScanIndex;
 import database.Database;
 import java.sql.*;
 import java.util.ArrayList;
@@ -84,6 +86,8 @@ public class ProductModifierDAOImpl implements ProductModifierDAO {
             ps.setString(3, modifier.getType());
             ps.setBoolean(4, modifier.isRequired());
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) {
                 return rs.getInt(1);
@@ -106,7 +110,10 @@ public class ProductModifierDAOImpl implements ProductModifierDAO {
             ps.setString(3, modifier.getType());
             ps.setBoolean(4, modifier.isRequired());
             ps.setInt(5, modifier.getId());
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -119,7 +126,10 @@ public class ProductModifierDAOImpl implements ProductModifierDAO {
             if (con == null) return false;
             PreparedStatement ps = con.prepareStatement("DELETE FROM ProductModifier WHERE id=?");
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
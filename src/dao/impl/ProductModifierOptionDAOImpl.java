@@ -2,13 +2,26 @@ package dao.impl;
 
 import dao.ProductModifierOptionDAO;
 import app.ProductModifierOption;
+import cache.ProductConfigurationCache;
 import database.Database;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 public class ProductModifierOptionDAOImpl implements ProductModifierOptionDAO {
 
+    private static final String SELECT_OPTIONS =
+        "SELECT pmo.id, pmo.modifierId, pmo.name, pmo.price, " +
+        "CONCAT(p.name, ' - ', pm.name) AS modifierName " +
+        "FROM ProductModifierOption pmo " +
+        "LEFT JOIN ProductModifier pm ON pmo.modifierId = pm.id " +
+        "LEFT JOIN Product p ON pm.productId = p.id ";
+
     @Override
     public List<ProductModifierOption> findAll() {
         List<ProductModifierOption> options = new ArrayList<>();
@@ -32,6 +45,11 @@ public class ProductModifierOptionDAOImpl implements ProductModifierOptionDAO {
 
     @Override
     public List<ProductModifierOption> findByModifierId(int modifierId) {
+        return findByModifierIds(Collections.singletonList(modifierId)).get(modifierId);
+    }
+
+    @Override
+    public List<ProductModifierOption> findByProductId(int productId) {
         List<ProductModifierOption> options = new ArrayList<>();
         try (Connection con = Database.connect()) {
             if (con == null) return options;
@@ -41,9 +59,9 @@ public class ProductModifierOptionDAOImpl implements ProductModifierOptionDAO {
                 "FROM ProductModifierOption pmo " +
                 "LEFT JOIN ProductModifier pm ON pmo.modifierId = pm.id " +
                 "LEFT JOIN Product p ON pm.productId = p.id " +
-                "WHERE pmo.modifierId = ?"
+                "WHERE pm.productId = ?"
             );
-            ps.setInt(1, modifierId);
+            ps.setInt(1, productId);
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
                 options.add(mapResultSetToOption(rs));
@@ -55,27 +73,45 @@ public class ProductModifierOptionDAOImpl implements ProductModifierOptionDAO {
     }
 
     @Override
-    public List<ProductModifierOption> findByProductId(int productId) {
-        List<ProductModifierOption> options = new ArrayList<>();
+    public Map<Integer, List<ProductModifierOption>> findByModifierIds(Collection<Integer> modifierIds) {
+        Map<Integer, List<ProductModifierOption>> options = new LinkedHashMap<>();
+        for (int modifierId : modifierIds) {
+            options.put(modifierId, new ArrayList<>());
+        }
+        if (options.isEmpty()) return options;
+        findGrouped("pmo.modifierId", new ArrayList<>(options.keySet()), options);
+        return options;
+    }
+
+    @Override
+    public Map<Integer, List<ProductModifierOption>> findByProductIds(Collection<Integer> productIds) {
+        Map<Integer, List<ProductModifierOption>> options = new LinkedHashMap<>();
+        if (productIds.isEmpty()) return options;
+        findGrouped("pm.productId", new ArrayList<>(new LinkedHashSet<>(productIds)), options);
+        return options;
+    }
+
+    /** Options whose {@code column} is one of {@code ids}, added to {@code options} by modifier id as they stream in */
+    private void findGrouped(String column, List<Integer> ids, Map<Integer, List<ProductModifierOption>> options) {
         try (Connection con = Database.connect()) {
-            if (con == null) return options;
-            PreparedStatement ps = con.prepareStatement(
-                "SELECT pmo.id, pmo.modifierId, pmo.name, pmo.price, " +
-                "CONCAT(p.name, ' - ', pm.name) AS modifierName " +
-                "FROM ProductModifierOption pmo " +
-                "LEFT JOIN ProductModifier pm ON pmo.modifierId = pm.id " +
-                "LEFT JOIN Product p ON pm.productId = p.id " +
-                "WHERE pm.productId = ?"
-            );
-            ps.setInt(1, productId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                options.add(mapResultSetToOption(rs));
+            if (con == null) return;
+            for (int from = 0; from < ids.size(); from += InList.MAX_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + InList.MAX_SIZE, ids.size()));
+                int listSize = InList.size(chunk.size());
+                PreparedStatement ps = con.prepareStatement(
+                    SELECT_OPTIONS + "WHERE " + column + " IN (" + InList.placeholders(listSize) + ") " +
+                    "ORDER BY pmo.modifierId, pmo.id"
+                );
+                InList.bind(ps, 1, chunk, listSize);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    ProductModifierOption option = mapResultSetToOption(rs);
+                    options.computeIfAbsent(option.getModifierId(), id -> new ArrayList<>()).add(option);
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return options;
     }
 
     @Override
@@ -113,6 +149,7 @@ public class ProductModifierOptionDAOImpl implements ProductModifierOptionDAO {
             ps.setDouble(2, option.getPrice());
             ps.setInt(3, option.getModifierId());
             ps.executeUpdate();
+            ProductConfigurationCache.getInstance().invalidate();
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) {
                 return rs.getInt(1);
@@ -134,7 +171,9 @@ public class ProductModifierOptionDAOImpl implements ProductModifierOptionDAO {
             ps.setDouble(2, option.getPrice());
             ps.setInt(3, option.getModifierId());
             ps.setInt(4, option.getId());
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            ProductConfigurationCache.getInstance().invalidate();
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -147,7 +186,9 @@ public class ProductModifierOptionDAOImpl implements ProductModifierOptionDAO {
             if (con == null) return false;
             PreparedStatement ps = con.prepareStatement("DELETE FROM ProductModifierOption WHERE id=?");
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            ProductConfigurationCache.getInstance().invalidate();
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -2,6 +2,8 @@ package dao.impl;
 
 import dao.ProductVariantDAO;
 import app.ProductVariant;
+import cache.ProductConfigurationCache;
+import cache.ScanIndex;
 import database.Database;
 import java.sql.*;
 import java.util.ArrayList;
@@ -15,23 +17,12 @@ public class ProductVariantDAOImpl implements ProductVariantDAO {
         try (Connection con = Database.connect()) {
             if (con == null) return variants;
             ResultSet rs = con.createStatement().executeQuery(
-                "SELECT pv.id, pv.name, pv.sku, pv.barcode, pv.price, pv.cost, pv.stock, pv.attributes, pv.isActive, p.name AS productName " +
+                "SELECT pv.id, pv.productId, pv.name, pv.sku, pv.barcode, pv.price, pv.cost, pv.stock, pv.attributes, pv.isActive, p.name AS productName " +
                 "FROM ProductVariant pv " +
                 "LEFT JOIN Product p ON pv.productId = p.id"
             );
             while (rs.next()) {
-                variants.add(new ProductVariant(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("sku"),
-                    rs.getString("barcode"),
-                    rs.getDouble("price"),
-                    rs.getDouble("cost"),
-                    rs.getInt("stock"),
-                    rs.getString("attributes"),
-                    rs.getBoolean("isActive"),
-                    rs.getString("productName")
-                ));
+                variants.add(mapResultSetToVariant(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -45,7 +36,7 @@ public class ProductVariantDAOImpl implements ProductVariantDAO {
         try (Connection con = Database.connect()) {
             if (con == null) return variants;
             PreparedStatement ps = con.prepareStatement(
-                "SELECT pv.id, pv.name, pv.sku, pv.barcode, pv.price, pv.cost, pv.stock, pv.attributes, pv.isActive, p.name AS productName " +
+                "SELECT pv.id, pv.productId, pv.name, pv.sku, pv.barcode, pv.price, pv.cost, pv.stock, pv.attributes, pv.isActive, p.name AS productName " +
                 "FROM ProductVariant pv " +
                 "LEFT JOIN Product p ON pv.productId = p.id " +
                 "WHERE pv.productId = ?"
@@ -53,18 +44,7 @@ public class ProductVariantDAOImpl implements ProductVariantDAO {
             ps.setInt(1, productId);
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
-                variants.add(new ProductVariant(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("sku"),
-                    rs.getString("barcode"),
-                    rs.getDouble("price"),
-                    rs.getDouble("cost"),
-                    rs.getInt("stock"),
-                    rs.getString("attributes"),
-                    rs.getBoolean("isActive"),
-                    rs.getString("productName")
-                ));
+                variants.add(mapResultSetToVariant(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -77,7 +57,7 @@ public class ProductVariantDAOImpl implements ProductVariantDAO {
         try (Connection con = Database.connect()) {
             if (con == null) return null;
             PreparedStatement ps = con.prepareStatement(
-                "SELECT pv.id, pv.name, pv.sku, pv.barcode, pv.price, pv.cost, pv.stock, pv.attributes, pv.isActive, p.name AS productName " +
+                "SELECT pv.id, pv.productId, pv.name, pv.sku, pv.barcode, pv.price, pv.cost, pv.stock, pv.attributes, pv.isActive, p.name AS productName " +
                 "FROM ProductVariant pv " +
                 "LEFT JOIN Product p ON pv.productId = p.id " +
                 "WHERE pv.id = ?"
@@ -85,18 +65,49 @@ public class ProductVariantDAOImpl implements ProductVariantDAO {
             ps.setInt(1, id);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return new ProductVariant(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("sku"),
-                    rs.getString("barcode"),
-                    rs.getDouble("price"),
-                    rs.getDouble("cost"),
-                    rs.getInt("stock"),
-                    rs.getString("attributes"),
-                    rs.getBoolean("isActive"),
-                    rs.getString("productName")
-                );
+                return mapResultSetToVariant(rs);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    @Override
+    public ProductVariant findByBarcode(String barcode) {
+        try (Connection con = Database.connect()) {
+            if (con == null) return null;
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT pv.id, pv.productId, pv.name, pv.sku, pv.barcode, pv.price, pv.cost, pv.stock, pv.attributes, pv.isActive, p.name AS productName " +
+                "FROM ProductVariant pv " +
+                "LEFT JOIN Product p ON pv.productId = p.id " +
+                "WHERE pv.barcode = ?"
+            );
+            ps.setString(1, barcode);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return mapResultSetToVariant(rs);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    @Override
+    public ProductVariant findBySku(String sku) {
+        try (Connection con = Database.connect()) {
+            if (con == null) return null;
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT pv.id, pv.productId, pv.name, pv.sku, pv.barcode, pv.price, pv.cost, pv.stock, pv.attributes, pv.isActive, p.name AS productName " +
+                "FROM ProductVariant pv " +
+                "LEFT JOIN Product p ON pv.productId = p.id " +
+                "WHERE pv.sku = ?"
+            );
+            ps.setString(1, sku);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return mapResultSetToVariant(rs);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -127,6 +138,8 @@ public class ProductVariantDAOImpl implements ProductVariantDAO {
             ps.setString(8, variant.getAttributes());
             ps.setBoolean(9, variant.isIsActive());
             ps.executeUpdate();
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) {
                 return rs.getInt(1);
@@ -158,7 +171,10 @@ public class ProductVariantDAOImpl implements ProductVariantDAO {
             ps.setString(8, variant.getAttributes());
             ps.setBoolean(9, variant.isIsActive());
             ps.setInt(10, variant.getId());
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -171,11 +187,31 @@ public class ProductVariantDAOImpl implements ProductVariantDAO {
             if (con == null) return false;
             PreparedStatement ps = con.prepareStatement("DELETE FROM ProductVariant WHERE id=?");
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            ScanIndex.getInstance().invalidate();
+            ProductConfigurationCache.getInstance().invalidate();
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return false;
     }
-}
 
+    private ProductVariant mapResultSetToVariant(ResultSet rs) throws SQLException {
+        Object costObj = rs.getObject("cost");
+        ProductVariant variant = new ProductVariant(
+            rs.getInt("id"),
+            rs.getString("name"),
+            rs.getString("sku"),
+            rs.getString("barcode"),
+            rs.getDouble("price"),
+            costObj != null ? rs.getDouble("cost") : null,
+            rs.getInt("stock"),
+            rs.getString("attributes"),
+            rs.getBoolean("isActive"),
+            rs.getString("productName")
+        );
+        variant.setProductId(rs.getInt("productId"));
+        return variant;
+    }
+}
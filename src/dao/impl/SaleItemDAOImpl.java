@@ -0,0 +1,62 @@
+package dao.impl;
+
+import dao.SaleItemDAO;
+import app.SaleItem;
+import database.Database;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SaleItemDAOImpl implements SaleItemDAO {
+
+    @Override
+    public List<SaleItem> findBySaleId(int saleId) throws SQLException {
+        return findBySaleIds(Collections.singletonList(saleId)).get(saleId);
+    }
+
+    @Override
+    public Map<Integer, List<SaleItem>> findBySaleIds(Collection<Integer> saleIds) throws SQLException {
+        Map<Integer, List<SaleItem>> items = new LinkedHashMap<>();
+        for (int saleId : saleIds) {
+            items.put(saleId, new ArrayList<>());
+        }
+        if (items.isEmpty()) return items;
+
+        List<Integer> ids = new ArrayList<>(items.keySet());
+        try (Connection con = Database.connect()) {
+            if (con == null) throw new SQLTransientConnectionException("Database connection failed!");
+            for (int from = 0; from < ids.size(); from += InList.MAX_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + InList.MAX_SIZE, ids.size()));
+                int listSize = InList.size(chunk.size());
+                try (PreparedStatement ps = con.prepareStatement(
+                        "SELECT id, saleId, productId, productName, quantity, price, subtotal FROM sale_items " +
+                        "WHERE saleId IN (" + InList.placeholders(listSize) + ") ORDER BY saleId, id")) {
+                    InList.bind(ps, 1, chunk, listSize);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            SaleItem item = mapResultSetToSaleItem(rs);
+                            items.get(item.getSaleId()).add(item);
+                        }
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
+    private SaleItem mapResultSetToSaleItem(ResultSet rs) throws SQLException {
+        return new SaleItem(
+            rs.getInt("id"),
+            rs.getInt("saleId"),
+            rs.getInt("productId"),
+            rs.getString("productName"),
+            rs.getInt("quantity"),
+            rs.getDouble("price"),
+            rs.getDouble("subtotal")
+        );
+    }
+}
@@ -1,7 +1,11 @@
 package dao.impl;
 
 import dao.SalesDAO;
+import dao.SalesRollupDAO;
 import app.Sales;
+import app.SalesSummary;
+import app.ShiftSummary;
+import cache.ReportCache;
 import database.Database;
 import java.sql.*;
 import java.time.LocalDateTime;
@@ -10,13 +14,15 @@ import java.util.List;
 
 public class SalesDAOImpl implements SalesDAO {
 
+    private final SalesRollupDAO rollupDAO = new SalesRollupDAOImpl();
+
     @Override
     public List<Sales> findAll() {
         List<Sales> sales = new ArrayList<>();
         try (Connection con = Database.connect()) {
             if (con == null) return sales;
             ResultSet rs = con.createStatement().executeQuery(
-                "SELECT id, saleDate, totalAmount, totalItems, cashierEmail FROM Sales ORDER BY saleDate DESC"
+                "SELECT id, saleDate, totalAmount, totalItems, cashierEmail FROM sales ORDER BY saleDate DESC"
             );
             while (rs.next()) {
                 sales.add(mapResultSetToSales(rs));
@@ -32,7 +38,7 @@ public class SalesDAOImpl implements SalesDAO {
         try (Connection con = Database.connect()) {
             if (con == null) return null;
             PreparedStatement ps = con.prepareStatement(
-                "SELECT id, saleDate, totalAmount, totalItems, cashierEmail FROM Sales WHERE id = ?"
+                "SELECT id, saleDate, totalAmount, totalItems, cashierEmail FROM sales WHERE id = ?"
             );
             ps.setInt(1, id);
             ResultSet rs = ps.executeQuery();
@@ -51,7 +57,7 @@ public class SalesDAOImpl implements SalesDAO {
         try (Connection con = Database.connect()) {
             if (con == null) return sales;
             PreparedStatement ps = con.prepareStatement(
-                "SELECT id, saleDate, totalAmount, totalItems, cashierEmail FROM Sales " +
+                "SELECT id, saleDate, totalAmount, totalItems, cashierEmail FROM sales " +
                 "WHERE saleDate >= ? AND saleDate <= ? ORDER BY saleDate DESC"
             );
             ps.setTimestamp(1, Timestamp.valueOf(startDate));
@@ -72,7 +78,7 @@ public class SalesDAOImpl implements SalesDAO {
         try (Connection con = Database.connect()) {
             if (con == null) return sales;
             PreparedStatement ps = con.prepareStatement(
-                "SELECT id, saleDate, totalAmount, totalItems, cashierEmail FROM Sales " +
+                "SELECT id, saleDate, totalAmount, totalItems, cashierEmail FROM sales " +
                 "WHERE cashierEmail = ? ORDER BY saleDate DESC"
             );
             ps.setString(1, cashierEmail);
@@ -87,21 +93,101 @@ public class SalesDAOImpl implements SalesDAO {
     }
 
     @Override
-    public int insert(Sales sale) {
+    public ShiftSummary getShiftSummary(String cashierEmail, LocalDateTime start, LocalDateTime end) {
         try (Connection con = Database.connect()) {
-            if (con == null) return -1;
+            if (con == null) return new ShiftSummary(start, cashierEmail, 0, 0.0, 0, null, null);
             PreparedStatement ps = con.prepareStatement(
-                "INSERT INTO Sales(saleDate, totalAmount, totalItems, cashierEmail) VALUES (?, ?, ?, ?)",
-                Statement.RETURN_GENERATED_KEYS
+                "SELECT COUNT(*) AS saleCount, COALESCE(SUM(totalAmount), 0) AS totalAmount, " +
+                "COALESCE(SUM(totalItems), 0) AS totalItems, MIN(saleDate) AS firstSale, MAX(saleDate) AS lastSale " +
+                "FROM sales WHERE cashierEmail = ? AND saleDate >= ? AND saleDate < ?"
             );
-            ps.setTimestamp(1, Timestamp.valueOf(sale.getSaleDate()));
-            ps.setDouble(2, sale.getTotalAmount());
-            ps.setInt(3, sale.getTotalItems());
-            ps.setString(4, sale.getCashierEmail());
-            ps.executeUpdate();
-            ResultSet rs = ps.getGeneratedKeys();
+            ps.setString(1, cashierEmail);
+            ps.setTimestamp(2, Timestamp.valueOf(start));
+            ps.setTimestamp(3, Timestamp.valueOf(end));
+            ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                return rs.getInt(1);
+                Timestamp first = rs.getTimestamp("firstSale");
+                Timestamp last = rs.getTimestamp("lastSale");
+                return new ShiftSummary(start, cashierEmail,
+                    rs.getInt("saleCount"),
+                    rs.getDouble("totalAmount"),
+                    rs.getInt("totalItems"),
+                    first != null ? first.toLocalDateTime() : null,
+                    last != null ? last.toLocalDateTime() : null
+                );
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new ShiftSummary(start, cashierEmail, 0, 0.0, 0, null, null);
+    }
+
+    @Override
+    public List<Sales> findPage(Sales after, String cashierSearch, int pageSize) throws SQLException {
+        List<Sales> sales = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+            "SELECT id, saleDate, totalAmount, totalItems, cashierEmail FROM sales WHERE 1 = 1");
+        if (after != null) {
+            // Keyset: rows strictly after the last one shown, in (saleDate, id) DESC order
+            sql.append(" AND (saleDate < ? OR (saleDate = ? AND id < ?))");
+        }
+        if (cashierSearch != null) {
+            // Prefix match on the indexed column; the collation makes it case-insensitive
+            sql.append(" AND cashierEmail LIKE ?");
+        }
+        sql.append(" ORDER BY saleDate DESC, id DESC LIMIT ?");
+
+        try (Connection con = Database.connect()) {
+            if (con == null) throw new SQLTransientConnectionException("Database connection failed!");
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            int i = 1;
+            if (after != null) {
+                Timestamp date = Timestamp.valueOf(after.getSaleDate());
+                ps.setTimestamp(i++, date);
+                ps.setTimestamp(i++, date);
+                ps.setInt(i++, after.getId());
+            }
+            if (cashierSearch != null) {
+                ps.setString(i++, likePrefix(cashierSearch));
+            }
+            ps.setInt(i, pageSize);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                sales.add(mapResultSetToSales(rs));
+            }
+        }
+        return sales;
+    }
+
+    @Override
+    public int insert(Sales sale) {
+        try (Connection con = Database.connect()) {
+            if (con == null) return -1;
+            con.setAutoCommit(false);
+            try {
+                PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO sales(saleDate, totalAmount, totalItems, cashierEmail) VALUES (?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS
+                );
+                ps.setTimestamp(1, Timestamp.valueOf(sale.getSaleDate()));
+                ps.setDouble(2, sale.getTotalAmount());
+                ps.setInt(3, sale.getTotalItems());
+                ps.setString(4, sale.getCashierEmail());
+                ps.executeUpdate();
+                ResultSet rs = ps.getGeneratedKeys();
+                if (rs.next()) {
+                    int id = rs.getInt(1);
+                    // Keep the report rollup in step with the sale it summarizes
+                    rollupDAO.recordSale(con, sale.getSaleDate(), sale.getCashierEmail(),
+                            sale.getTotalAmount(), sale.getTotalItems());
+                    con.commit();
+                    ReportCache.getInstance().saleRecorded(sale.getSaleDate());
+                    return id;
+                }
+                con.rollback();
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -114,7 +200,7 @@ public class SalesDAOImpl implements SalesDAO {
         try (Connection con = Database.connect()) {
             if (con == null) return 0.0;
             PreparedStatement ps = con.prepareStatement(
-                "SELECT SUM(totalAmount) AS total FROM Sales WHERE saleDate >= ? AND saleDate <= ?"
+                "SELECT SUM(totalAmount) AS total FROM sales WHERE saleDate >= ? AND saleDate <= ?"
             );
             ps.setTimestamp(1, Timestamp.valueOf(startDate));
             ps.setTimestamp(2, Timestamp.valueOf(endDate));
@@ -133,7 +219,7 @@ public class SalesDAOImpl implements SalesDAO {
         try (Connection con = Database.connect()) {
             if (con == null) return 0;
             PreparedStatement ps = con.prepareStatement(
-                "SELECT SUM(totalItems) AS total FROM Sales WHERE saleDate >= ? AND saleDate <= ?"
+                "SELECT SUM(totalItems) AS total FROM sales WHERE saleDate >= ? AND saleDate <= ?"
             );
             ps.setTimestamp(1, Timestamp.valueOf(startDate));
             ps.setTimestamp(2, Timestamp.valueOf(endDate));
@@ -147,6 +233,45 @@ public class SalesDAOImpl implements SalesDAO {
         return 0;
     }
 
+    private static final String SUMMARY_COLUMNS =
+        "COUNT(*) AS saleCount, COALESCE(SUM(totalAmount), 0) AS totalAmount, " +
+        "COALESCE(SUM(totalItems), 0) AS totalItems, " +
+        "COALESCE(MIN(totalAmount), 0) AS smallestSale, COALESCE(MAX(totalAmount), 0) AS largestSale";
+
+    /** Average is derived from count and total, so it is not selected */
+    @Override
+    public SalesSummary summarize(LocalDateTime start, LocalDateTime end) throws SQLException {
+        boolean ranged = start != null && end != null;
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM sales" +
+                     (ranged ? " WHERE saleDate >= ? AND saleDate < ?" : "");
+        try (Connection con = Database.connect()) {
+            if (con == null) throw new SQLTransientConnectionException("Database connection failed!");
+            PreparedStatement ps = con.prepareStatement(sql);
+            if (ranged) {
+                ps.setTimestamp(1, Timestamp.valueOf(start));
+                ps.setTimestamp(2, Timestamp.valueOf(end));
+            }
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return new SalesSummary(
+                    start,
+                    null,
+                    rs.getInt("saleCount"),
+                    rs.getDouble("totalAmount"),
+                    rs.getInt("totalItems"),
+                    rs.getDouble("smallestSale"),
+                    rs.getDouble("largestSale")
+                );
+            }
+        }
+        return new SalesSummary(start, null, 0, 0.0, 0);
+    }
+
+    /** LIKE pattern matching values that start with {@code prefix} literally */
+    static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
     private Sales mapResultSetToSales(ResultSet rs) throws SQLException {
         Timestamp timestamp = rs.getTimestamp("saleDate");
         LocalDateTime saleDate = timestamp != null ? timestamp.toLocalDateTime() : LocalDateTime.now();
@@ -0,0 +1,114 @@
+package dao.impl;
+
+import dao.SalesRollupDAO;
+import app.SalesSummary;
+import database.Database;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SalesRollupDAOImpl implements SalesRollupDAO {
+
+    @Override
+    public void recordSale(Connection con, LocalDateTime saleDate, String cashierEmail,
+                           double totalAmount, int totalItems) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO sales_rollup (bucketStart, cashierEmail, saleCount, totalAmount, totalItems) " +
+                "VALUES (?, ?, 1, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE saleCount = saleCount + 1, " +
+                "totalAmount = totalAmount + VALUES(totalAmount), totalItems = totalItems + VALUES(totalItems)")) {
+            ps.setTimestamp(1, Timestamp.valueOf(saleDate.truncatedTo(ChronoUnit.HOURS)));
+            ps.setString(2, cashierEmail != null ? cashierEmail : "");
+            ps.setDouble(3, totalAmount);
+            ps.setInt(4, totalItems);
+            ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public SalesSummary summarize(LocalDateTime start, LocalDateTime end) {
+        try (Connection con = Database.connect()) {
+            if (con == null) return new SalesSummary(start, null, 0, 0.0, 0);
+            PreparedStatement ps;
+            if (start == null || end == null) {
+                ps = con.prepareStatement(
+                    "SELECT COALESCE(SUM(saleCount), 0) AS saleCount, COALESCE(SUM(totalAmount), 0) AS totalAmount, " +
+                    "COALESCE(SUM(totalItems), 0) AS totalItems FROM sales_rollup"
+                );
+            } else {
+                ps = con.prepareStatement(
+                    "SELECT COALESCE(SUM(saleCount), 0) AS saleCount, COALESCE(SUM(totalAmount), 0) AS totalAmount, " +
+                    "COALESCE(SUM(totalItems), 0) AS totalItems FROM sales_rollup " +
+                    "WHERE bucketStart >= ? AND bucketStart < ?"
+                );
+                ps.setTimestamp(1, Timestamp.valueOf(start));
+                ps.setTimestamp(2, Timestamp.valueOf(end));
+            }
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return new SalesSummary(start, null, rs.getInt("saleCount"),
+                        rs.getDouble("totalAmount"), rs.getInt("totalItems"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new SalesSummary(start, null, 0, 0.0, 0);
+    }
+
+    @Override
+    public SalesSummary summarizeCashierSearch(String cashierSearch) {
+        try (Connection con = Database.connect()) {
+            if (con == null) return new SalesSummary(null, null, 0, 0.0, 0);
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT COALESCE(SUM(saleCount), 0) AS saleCount, COALESCE(SUM(totalAmount), 0) AS totalAmount, " +
+                "COALESCE(SUM(totalItems), 0) AS totalItems FROM sales_rollup WHERE cashierEmail LIKE ?"
+            );
+            ps.setString(1, SalesDAOImpl.likePrefix(cashierSearch));
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return new SalesSummary(null, null, rs.getInt("saleCount"),
+                        rs.getDouble("totalAmount"), rs.getInt("totalItems"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new SalesSummary(null, null, 0, 0.0, 0);
+    }
+
+    @Override
+    public List<SalesSummary> findDaily(LocalDateTime start, LocalDateTime end) {
+        return findGrouped(
+            "SELECT DATE(bucketStart) AS period, NULL AS cashierEmail, SUM(saleCount) AS saleCount, " +
+            "SUM(totalAmount) AS totalAmount, SUM(totalItems) AS totalItems FROM sales_rollup " +
+            "WHERE bucketStart >= ? AND bucketStart < ? " +
+            "GROUP BY DATE(bucketStart) ORDER BY period",
+            start, end);
+    }
+
+    private List<SalesSummary> findGrouped(String sql, LocalDateTime start, LocalDateTime end) {
+        List<SalesSummary> summaries = new ArrayList<>();
+        try (Connection con = Database.connect()) {
+            if (con == null) return summaries;
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setTimestamp(1, Timestamp.valueOf(start));
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                Timestamp period = rs.getTimestamp("period");
+                String cashier = rs.getString("cashierEmail");
+                summaries.add(new SalesSummary(
+                    period != null ? period.toLocalDateTime() : null,
+                    cashier != null && !cashier.isEmpty() ? cashier : null,
+                    rs.getInt("saleCount"),
+                    rs.getDouble("totalAmount"),
+                    rs.getInt("totalItems")
+                ));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return summaries;
+    }
+}
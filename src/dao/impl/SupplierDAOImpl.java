@@ -2,6 +2,7 @@ package dao.impl;
 
 import dao.SupplierDAO;
 import app.Supplier;
+import cache.ReferenceData;
 import database.Database;
 import java.sql.*;
 import java.util.ArrayList;
@@ -84,6 +85,7 @@ public class SupplierDAOImpl implements SupplierDAO {
             ps.setString(3, supplier.getPhone());
             ps.setString(4, supplier.getAddress());
             ps.executeUpdate();
+            ReferenceData.getInstance().invalidateSuppliers();
             ResultSet rs = ps.getGeneratedKeys();
             if (rs.next()) {
                 return rs.getInt(1);
@@ -104,7 +106,11 @@ public class SupplierDAOImpl implements SupplierDAO {
             ps.setString(3, supplier.getPhone());
             ps.setString(4, supplier.getAddress());
             ps.setInt(5, supplier.getId());
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            if (changed) {
+                ReferenceData.getInstance().invalidateSuppliers();
+            }
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -117,7 +123,11 @@ public class SupplierDAOImpl implements SupplierDAO {
             if (con == null) return false;
             PreparedStatement ps = con.prepareStatement("DELETE FROM Supplier WHERE id=?");
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            boolean changed = ps.executeUpdate() > 0;
+            if (changed) {
+                ReferenceData.getInstance().invalidateSuppliers();
+            }
+            return changed;
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,506 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of physical MySQL connections.
+ *
+ * Callers get a proxy from {@link #borrow()} and use it exactly like a plain
+ * JDBC connection: closing it hands the physical connection back to the pool
+ * instead of tearing down the socket. Statements opened through the proxy are
+ * closed and any open transaction is rolled back when it is returned, so the
+ * next borrower always sees a clean auto-commit connection.
+ *
+ * Each physical connection also keeps a {@link StatementCache}, so prepared
+ * statements for hot SQL survive across borrows.
+ */
+public class ConnectionPool {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    // Most recently returned connection sits at the head so hot paths reuse warm sockets
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> active = new HashSet<>();
+    private int pending; // physical connections currently being opened
+    private int waiters;
+    private boolean closed;
+
+    // Counters, guarded by lock
+    private long borrowCount;
+    private long waitCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long timeoutCount;
+    private long createdCount;
+    private long destroyedCount;
+    private long leakCount;
+
+    // Shared by the statement caches of all connections
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * @param validationIntervalMillis connections idle for less than this are handed out
+     *                                 without a validation ping
+     * @param leakThresholdMillis      borrowed connections held longer than this are reported
+     *                                 as possible leaks (0 disables leak detection)
+     * @param statementCacheSize       prepared statements cached per connection (0 disables caching)
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          long validationIntervalMillis, int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.statementCacheSize = statementCacheSize;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis,
+                leakThresholdMillis > 0 ? leakThresholdMillis : idleTimeoutMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Borrow a connection, waiting up to the borrow timeout for one to become free */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        boolean waited = false;
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        active.add(candidate);
+                        break;
+                    }
+                    if (active.size() + pending < maxSize) {
+                        pending++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount++;
+                        throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis +
+                                " ms waiting for a database connection (" + active.size() + " in use)");
+                    }
+                    waited = true;
+                    waiters++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                candidate = openPhysical();
+                lock.lock();
+                try {
+                    active.add(candidate);
+                } finally {
+                    lock.unlock();
+                }
+            } else if (!validate(candidate)) {
+                destroy(candidate);
+                continue;
+            }
+            return checkout(candidate, start, waited);
+        }
+    }
+
+    /** Snapshot of the pool counters */
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(active.size(), idle.size(), waiters, borrowCount, waitCount,
+                    totalWaitNanos, maxWaitNanos, timeoutCount, createdCount, destroyedCount, leakCount,
+                    statementCacheHits.get(), statementCacheMisses.get(), statementCacheEvictions.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Close idle connections and refuse new borrows; borrowed ones are closed when returned */
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            destroyedCount += idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pc : toClose) {
+            pc.closePhysical();
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, user, password);
+            StatementCache statements = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize,
+                            statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                    : null;
+            PooledConnection pc = new PooledConnection(physical, statements);
+            lock.lock();
+            try {
+                pending--;
+                createdCount++;
+            } finally {
+                lock.unlock();
+            }
+            return pc;
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                pending--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean validate(PooledConnection pc) {
+        // Skip the ping for connections that were in use moments ago
+        if (System.currentTimeMillis() - pc.lastUsed < validationIntervalMillis) {
+            return true;
+        }
+        try {
+            return pc.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection checkout(PooledConnection pc, long startNanos, boolean waited) {
+        long waitNanos = System.nanoTime() - startNanos;
+        lock.lock();
+        try {
+            borrowCount++;
+            if (waited) {
+                waitCount++;
+            }
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+        } finally {
+            lock.unlock();
+        }
+        pc.borrowedAt = System.currentTimeMillis();
+        pc.borrowSite = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+        pc.leakReported = false;
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new ConnectionHandle(pc));
+    }
+
+    private void release(PooledConnection pc) {
+        boolean reusable = pc.reset();
+        lock.lock();
+        try {
+            active.remove(pc);
+            if (pc.leakReported) {
+                System.err.println("Connection previously reported as leaked was returned after "
+                        + (System.currentTimeMillis() - pc.borrowedAt) + " ms");
+            }
+            if (reusable && !closed) {
+                pc.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pc);
+                available.signal();
+                return;
+            }
+            destroyedCount++;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        pc.closePhysical();
+    }
+
+    private void destroy(PooledConnection pc) {
+        lock.lock();
+        try {
+            active.remove(pc);
+            idle.remove(pc);
+            destroyedCount++;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        pc.closePhysical();
+    }
+
+    /** Evict connections idle past the timeout, report leaks and top the pool back up to minSize */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+        List<PooledConnection> leaked = new ArrayList<>();
+        int missing;
+
+        lock.lock();
+        try {
+            if (closed) return;
+
+            // Least recently used connections are at the tail
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() + active.size() > minSize) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastUsed > idleTimeoutMillis) {
+                    it.remove();
+                    evicted.add(pc);
+                    destroyedCount++;
+                }
+            }
+
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pc : active) {
+                    if (!pc.leakReported && now - pc.borrowedAt > leakThresholdMillis) {
+                        pc.leakReported = true;
+                        leakCount++;
+                        leaked.add(pc);
+                    }
+                }
+            }
+
+            missing = minSize - (idle.size() + active.size() + pending);
+            if (missing > 0) {
+                pending += missing;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pc : evicted) {
+            pc.closePhysical();
+        }
+
+        for (PooledConnection pc : leaked) {
+            System.err.println("⚠ Possible connection leak: connection held for "
+                    + (now - pc.borrowedAt) + " ms without being closed");
+            if (pc.borrowSite != null) {
+                pc.borrowSite.printStackTrace();
+            }
+        }
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                PooledConnection pc = openPhysical();
+                lock.lock();
+                try {
+                    if (closed) {
+                        destroyedCount++;
+                        pc.closePhysical();
+                    } else {
+                        pc.lastUsed = System.currentTimeMillis();
+                        idle.addLast(pc);
+                        available.signal();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Database unreachable; give back the remaining reservations and retry next run
+                lock.lock();
+                try {
+                    pending -= missing - i - 1;
+                } finally {
+                    lock.unlock();
+                }
+                break;
+            }
+        }
+    }
+
+    /** A physical connection plus the bookkeeping for its current borrow */
+    private static final class PooledConnection {
+        final Connection physical;
+        final StatementCache statements;
+        final List<Statement> openStatements = new ArrayList<>();
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+
+        void track(Statement statement) {
+            openStatements.add(statement);
+        }
+
+        PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+            PreparedStatement cached = statements != null ? statements.prepare(sql, autoGeneratedKeys) : null;
+            if (cached != null) {
+                return cached;
+            }
+            PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+            track(statement);
+            return statement;
+        }
+
+        /** Undo whatever the borrower left behind; returns false if the connection is unusable */
+        boolean reset() {
+            if (statements != null) {
+                statements.releaseAll();
+            }
+            for (Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            openStatements.clear();
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    /** Logical connection handed to callers; close() returns the physical connection to the pool */
+    private final class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection owner;
+        private boolean closed;
+
+        ConnectionHandle(PooledConnection owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(owner);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || owner.physical.isClosed();
+                case "isValid":
+                    if (closed) return false;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + owner.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            if (method.getName().equals("prepareStatement")) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1) {
+                    return owner.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (types.length == 2 && types[1] == int.class) {
+                    return owner.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+            try {
+                Object result = method.invoke(owner.physical, args);
+                if (result instanceof Statement) {
+                    owner.track((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
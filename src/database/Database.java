@@ -1,23 +1,69 @@
 package database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class Database {
-    private static final String URL = "jdbc:mysql://localhost:3306/posdb";
+    // Server-side prepared statements so cached statements are parsed once by MySQL too;
+    // batched statements are rewritten into multi-row INSERTs / multi-statement UPDATEs
+    private static final String URL =
+            "jdbc:mysql://localhost:3306/posdb?useServerPrepStmts=true&rewriteBatchedStatements=true";
     private static final String USER = "root";   // change if needed
     private static final String PASSWORD = "";   // put your MySQL password
 
+    // Connection pool settings
+    private static final int POOL_MIN_SIZE = 2;
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long BORROW_TIMEOUT_MS = 5_000;
+    private static final long IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long LEAK_THRESHOLD_MS = 60_000;
+    private static final long VALIDATION_INTERVAL_MS = 500;
+    private static final int STATEMENT_CACHE_SIZE = 64; // per connection
+
+    // Connector/J streams the result set row by row when the fetch size is MIN_VALUE
+    public static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static ConnectionPool pool;
+
+    /**
+     * Borrow a pooled connection. Closing it (try-with-resources) returns it to the pool.
+     * Returns null if no connection could be obtained.
+     */
     public static Connection connect() {
         try {
-            Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-            System.out.println("✅ Database Connected Successfully!");
-            return conn;
+            return getPool().borrow();
         } catch (SQLException e) {
             System.out.println("❌ Database Connection Failed!");
             e.printStackTrace();
             return null;
         }
     }
+
+    /** Upper bound on connections open at once, e.g. for sizing parallel work */
+    public static int getMaxConnections() {
+        return POOL_MAX_SIZE;
+    }
+
+    /** Current pool counters (active/idle connections, wait times, leaks, statement cache hits) */
+    public static PoolStats getPoolStats() {
+        return getPool().getStats();
+    }
+
+    /** Close all pooled connections; called when the application exits */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            pool = new ConnectionPool(URL, USER, PASSWORD, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                    BORROW_TIMEOUT_MS, IDLE_TIMEOUT_MS, LEAK_THRESHOLD_MS, VALIDATION_INTERVAL_MS,
+                    STATEMENT_CACHE_SIZE);
+            System.out.println("✅ Database connection pool started (max " + POOL_MAX_SIZE + " connections)");
+        }
+        return pool;
+    }
 }
@@ -0,0 +1,80 @@
+package database;
+
+/**
+ * Point-in-time snapshot of {@link ConnectionPool} counters.
+ */
+public class PoolStats {
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int threadsAwaiting;
+    private final long borrowCount;
+    private final long waitCount;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long timeoutCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long leakCount;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    public PoolStats(int activeConnections, int idleConnections, int threadsAwaiting,
+                     long borrowCount, long waitCount, long totalWaitNanos, long maxWaitNanos,
+                     long timeoutCount, long createdCount, long destroyedCount, long leakCount,
+                     long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.threadsAwaiting = threadsAwaiting;
+        this.borrowCount = borrowCount;
+        this.waitCount = waitCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.timeoutCount = timeoutCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.leakCount = leakCount;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    public int getActiveConnections() { return activeConnections; }
+    public int getIdleConnections() { return idleConnections; }
+    public int getTotalConnections() { return activeConnections + idleConnections; }
+    public int getThreadsAwaiting() { return threadsAwaiting; }
+
+    // Number of successful borrows and how many of them had to wait for a free connection
+    public long getBorrowCount() { return borrowCount; }
+    public long getWaitCount() { return waitCount; }
+
+    public double getTotalWaitMillis() { return totalWaitNanos / 1_000_000.0; }
+    public double getMaxWaitMillis() { return maxWaitNanos / 1_000_000.0; }
+    public double getAverageWaitMillis() {
+        return borrowCount > 0 ? getTotalWaitMillis() / borrowCount : 0.0;
+    }
+
+    public long getTimeoutCount() { return timeoutCount; }
+    public long getCreatedCount() { return createdCount; }
+    public long getDestroyedCount() { return destroyedCount; }
+    public long getLeakCount() { return leakCount; }
+
+    // Prepared statement cache, summed over all pooled connections
+    public long getStatementCacheHits() { return statementCacheHits; }
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+    public long getStatementCacheEvictions() { return statementCacheEvictions; }
+    public double getStatementCacheHitRatio() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups > 0 ? (double) statementCacheHits / lookups : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "PoolStats[active=%d, idle=%d, awaiting=%d, borrows=%d, waits=%d, avgWait=%.3fms, maxWait=%.3fms, " +
+            "timeouts=%d, created=%d, destroyed=%d, leaks=%d, stmtHits=%d, stmtMisses=%d, stmtEvictions=%d]",
+            activeConnections, idleConnections, threadsAwaiting, borrowCount, waitCount,
+            getAverageWaitMillis(), getMaxWaitMillis(), timeoutCount, createdCount, destroyedCount, leakCount,
+            statementCacheHits, statementCacheMisses, statementCacheEvictions);
+    }
+}
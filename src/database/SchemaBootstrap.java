@@ -0,0 +1,178 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Brings the database schema up to date once per process.
+ *
+ * Each step below has a version number; the versions already applied are kept
+ * in the schema_version table, so a started application only pays for a single
+ * SELECT. Add new steps at the end with the next number, never edit old ones.
+ */
+public class SchemaBootstrap {
+
+    private static boolean done;
+
+    private SchemaBootstrap() {}
+
+    /**
+     * Apply any missing schema steps. Cheap after the first successful call;
+     * if the database is unreachable it returns false and the next call retries.
+     */
+    public static synchronized boolean ensure() {
+        if (done) return true;
+        try (Connection con = Database.connect()) {
+            if (con == null) return false;
+            try (Statement st = con.createStatement()) {
+                st.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (" +
+                        "version INT PRIMARY KEY, " +
+                        "appliedAt DATETIME NOT NULL" +
+                        ")");
+            }
+            int current = currentVersion(con);
+            if (current < 1) {
+                apply(con, 1, "sales tables",
+                        "CREATE TABLE IF NOT EXISTS sales (" +
+                        "id INT AUTO_INCREMENT PRIMARY KEY, " +
+                        "saleDate DATETIME NOT NULL, " +
+                        "totalAmount DECIMAL(10,2) NOT NULL, " +
+                        "totalItems INT NOT NULL, " +
+                        "cashierEmail VARCHAR(255)" +
+                        ")",
+                        "CREATE TABLE IF NOT EXISTS sale_items (" +
+                        "id INT AUTO_INCREMENT PRIMARY KEY, " +
+                        "saleId INT NOT NULL, " +
+                        "productId INT NOT NULL, " +
+                        "productName VARCHAR(255) NOT NULL, " +
+                        "quantity INT NOT NULL, " +
+                        "price DECIMAL(10,2) NOT NULL, " +
+                        "subtotal DECIMAL(10,2) NOT NULL, " +
+                        "FOREIGN KEY (saleId) REFERENCES sales(id) ON DELETE CASCADE" +
+                        ")");
+            }
+            if (current < 2) {
+                // Idempotency markers for sales replayed from the local journal
+                apply(con, 2, "sale journal markers",
+                        "CREATE TABLE IF NOT EXISTS sale_journal_applied (" +
+                        "entryId CHAR(36) PRIMARY KEY, " +
+                        "saleId INT NOT NULL, " +
+                        "appliedAt DATETIME NOT NULL" +
+                        ")");
+            }
+            if (current < 3) {
+                createIndex(con, "sales", "idx_sales_saleDate", "saleDate");
+                createIndex(con, "sales", "idx_sales_cashierEmail", "cashierEmail");
+                createIndex(con, "sale_items", "idx_sale_items_saleId", "saleId");
+                createIndex(con, "sale_items", "idx_sale_items_productId", "productId");
+                createIndex(con, "Product", "idx_product_categoryId", "categoryId");
+                createIndex(con, "Product", "idx_product_supplierId", "supplierId");
+                createIndex(con, "Product", "idx_product_barcode", "barcode");
+                createIndex(con, "Product", "idx_product_sku", "sku");
+                // Register listing: active, in-stock products by name
+                createIndex(con, "Product", "idx_product_available", "isActive, currentStock, name");
+                apply(con, 3, "performance indexes");
+            }
+            if (current < 4) {
+                // Hourly per-cashier totals, kept current by every sale write;
+                // existing sales are folded in once here
+                apply(con, 4, "sales rollup",
+                        "CREATE TABLE IF NOT EXISTS sales_rollup (" +
+                        "bucketStart DATETIME NOT NULL, " +
+                        "cashierEmail VARCHAR(255) NOT NULL DEFAULT '', " +
+                        "saleCount INT NOT NULL, " +
+                        "totalAmount DECIMAL(14,2) NOT NULL, " +
+                        "totalItems INT NOT NULL, " +
+                        "PRIMARY KEY (bucketStart, cashierEmail)" +
+                        ")",
+                        "DELETE FROM sales_rollup",
+                        "INSERT INTO sales_rollup (bucketStart, cashierEmail, saleCount, totalAmount, totalItems) " +
+                        "SELECT DATE_FORMAT(saleDate, '%Y-%m-%d %H:00:00'), COALESCE(cashierEmail, ''), " +
+                        "COUNT(*), SUM(totalAmount), SUM(totalItems) " +
+                        "FROM sales GROUP BY 1, 2");
+            }
+            if (current < 5) {
+                // Covers the report summary queries, so they are answered from the index alone
+                createIndex(con, "sales", "idx_sales_summary", "saleDate, totalAmount, totalItems, cashierEmail");
+                apply(con, 5, "sales summary index");
+            }
+            if (current < 6) {
+                // Per-cashier lookups and shift summaries: exact or prefix email match, then time range
+                createIndex(con, "sales", "idx_sales_cashier_date", "cashierEmail, saleDate, totalAmount, totalItems");
+                apply(con, 6, "cashier sales index");
+            }
+            if (current < 7) {
+                // Superseded by idx_sales_summary and idx_sales_cashier_date, which lead with
+                // the same columns; every sale write was paying to maintain them
+                dropIndex(con, "sales", "idx_sales_saleDate");
+                dropIndex(con, "sales", "idx_sales_cashierEmail");
+                apply(con, 7, "drop superseded sales indexes");
+            }
+            if (current < 8) {
+                // Back from v7: InnoDB appends the primary key, so this index is (saleDate, id),
+                // the order of the keyset-paged sales history and the CSV export
+                createIndex(con, "sales", "idx_sales_saleDate", "saleDate");
+                apply(con, 8, "sales date index");
+            }
+            done = true;
+            return true;
+        } catch (SQLException e) {
+            System.err.println("❌ Schema bootstrap failed: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static int currentVersion(Connection con) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /** Run the statements of one step and record its version */
+    private static void apply(Connection con, int version, String description, String... statements) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            for (String sql : statements) {
+                st.executeUpdate(sql);
+            }
+        }
+        try (PreparedStatement ps = con.prepareStatement(
+                "INSERT IGNORE INTO schema_version (version, appliedAt) VALUES (?, NOW())")) {
+            ps.setInt(1, version);
+            ps.executeUpdate();
+        }
+        System.out.println("✅ Schema v" + version + " applied (" + description + ")");
+    }
+
+    /** MySQL has no CREATE INDEX IF NOT EXISTS, so look it up first */
+    private static void createIndex(Connection con, String table, String name, String columns) throws SQLException {
+        if (indexExists(con, table, name)) return;
+        try (Statement st = con.createStatement()) {
+            st.executeUpdate("CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    /** Likewise there is no DROP INDEX IF EXISTS */
+    private static void dropIndex(Connection con, String table, String name) throws SQLException {
+        if (!indexExists(con, table, name)) return;
+        try (Statement st = con.createStatement()) {
+            st.executeUpdate("DROP INDEX " + name + " ON " + table);
+        }
+    }
+
+    private static boolean indexExists(Connection con, String table, String name) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT 1 FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?")) {
+            ps.setString(1, table);
+            ps.setString(2, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements belonging to one physical connection, keyed by
+ * SQL text. A statement handed out from the cache stays checked out until the
+ * caller closes it or the pooled connection is returned; either way it is only
+ * reset, not closed, so the next prepare of the same SQL skips parsing.
+ */
+final class StatementCache {
+
+    private final Connection physical;
+    private final int capacity;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+    // Access-ordered so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<Entry> checkedOut = new ArrayList<>();
+
+    StatementCache(Connection physical, int capacity, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Prepare {@code sql}, reusing a cached statement when one is free.
+     * Returns null when the statement cannot be cached because the same SQL is
+     * already checked out by this borrower; the caller then prepares it directly.
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.inUse) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            PreparedStatement statement = autoGeneratedKeys == Statement.NO_GENERATED_KEYS
+                    ? physical.prepareStatement(sql)
+                    : physical.prepareStatement(sql, autoGeneratedKeys);
+            entry = new Entry(statement);
+            entry.inUse = true;
+            entries.put(key, entry);
+            evictOverflow();
+        }
+        entry.inUse = true;
+        checkedOut.add(entry);
+        return entry.newHandle();
+    }
+
+    /** Return every statement checked out during the current borrow to the cache */
+    void releaseAll() {
+        for (Entry entry : checkedOut) {
+            entry.reset();
+        }
+        checkedOut.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > capacity && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (!eldest.inUse) {
+                it.remove();
+                evictions.incrementAndGet();
+                try {
+                    eldest.statement.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        final PreparedStatement statement;
+        boolean inUse;
+        ResultSet lastResult;
+        Handle handle;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement newHandle() {
+            handle = new Handle(this);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    handle);
+        }
+
+        void reset() {
+            if (!inUse) {
+                return;
+            }
+            if (handle != null) {
+                handle.closed = true;
+                handle = null;
+            }
+            try {
+                if (lastResult != null) {
+                    lastResult.close();
+                    lastResult = null;
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException ignored) {
+            }
+            inUse = false;
+        }
+    }
+
+    /** Borrower's view of a cached statement; close() returns it to the cache */
+    private static final class Handle implements InvocationHandler {
+        private final Entry entry;
+        boolean closed;
+
+        Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    // Hand the statement back to the cache rather than closing it
+                    if (!closed) {
+                        entry.reset();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    throw new SQLException("getConnection() is not supported on cached statements");
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + entry.statement + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                Object result = method.invoke(entry.statement, args);
+                if (result instanceof ResultSet && method.getName().equals("executeQuery")) {
+                    entry.lastResult = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package service;
+
+import app.CartItem;
+import app.Money;
+
+/**
+ * Running totals of the register's cart, in whole centavos.
+ *
+ * The cart tells this class about every change (a line added or removed, a
+ * quantity changed, the discount edited, the cart cleared) and the totals are
+ * adjusted by the difference, so each change costs the same however many
+ * lines the cart holds. Each line's unit price is computed once by
+ * {@link CartItem} when it is configured. Sums, discount and change are exact
+ * integer arithmetic; the discount is rounded half up to the centavo.
+ */
+public class CartPricing {
+
+    private long grossCents;
+    private int totalItems;
+    private int lineCount;
+    private long discountBasisPoints; // hundredths of a percent, 0..10000
+
+    /** A new line is in the cart */
+    public void lineAdded(CartItem item) {
+        grossCents += item.getSubtotalCents();
+        totalItems += item.getQuantity();
+        lineCount++;
+    }
+
+    /** A line left the cart */
+    public void lineRemoved(CartItem item) {
+        grossCents -= item.getSubtotalCents();
+        totalItems -= item.getQuantity();
+        lineCount--;
+    }
+
+    /** Change a line's quantity and the totals with it */
+    public void setQuantity(CartItem item, int quantity) {
+        grossCents -= item.getSubtotalCents();
+        totalItems -= item.getQuantity();
+        item.setQuantity(quantity);
+        grossCents += item.getSubtotalCents();
+        totalItems += item.getQuantity();
+    }
+
+    /** The cart was emptied */
+    public void clear() {
+        grossCents = 0;
+        totalItems = 0;
+        lineCount = 0;
+    }
+
+    /** Cart-level discount in percent, clamped to 0..100 */
+    public void setDiscountPercent(double percent) {
+        long basisPoints = Math.round(percent * 100.0);
+        discountBasisPoints = Math.max(0, Math.min(10_000, basisPoints));
+    }
+
+    public double getDiscountPercent() { return discountBasisPoints / 100.0; }
+
+    public long getGrossCents() { return grossCents; }
+
+    public long getDiscountCents() {
+        return (grossCents * discountBasisPoints + 5_000) / 10_000;
+    }
+
+    /** What the customer pays: gross less discount */
+    public long getNetCents() {
+        return grossCents - getDiscountCents();
+    }
+
+    public double getNetAmount() { return Money.toAmount(getNetCents()); }
+
+    /** Change due for the cash received; negative when it does not cover the total */
+    public long changeFor(long cashCents) {
+        return cashCents - getNetCents();
+    }
+
+    public int getTotalItems() { return totalItems; }
+    public int getLineCount() { return lineCount; }
+}
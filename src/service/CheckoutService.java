@@ -0,0 +1,80 @@
+package service;
+
+import app.CartItem;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Completes a sale for the register.
+ *
+ * The sale is made durable in the local {@link SaleJournal} and the cashier can
+ * move on immediately; the journal's flusher writes it to MySQL through
+ * {@link SaleWriter}. If the journal cannot be written the sale goes to MySQL
+ * directly, as before. Commit latency (what the cashier waits for) is measured
+ * per sale and accumulated for all sales.
+ */
+public class CheckoutService {
+
+    // Shared by every register in this process
+    private static final AtomicLong commitCount = new AtomicLong();
+    private static final AtomicLong totalCommitNanos = new AtomicLong();
+    private static final AtomicLong maxCommitNanos = new AtomicLong();
+
+    /** Outcome of a committed sale */
+    public static class Result {
+        private final String receiptId;
+        private final int totalItems;
+        private final int lineCount;
+        private final long commitNanos;
+
+        Result(String receiptId, int totalItems, int lineCount, long commitNanos) {
+            this.receiptId = receiptId;
+            this.totalItems = totalItems;
+            this.lineCount = lineCount;
+            this.commitNanos = commitNanos;
+        }
+
+        public String getReceiptId() { return receiptId; }
+        public int getTotalItems() { return totalItems; }
+        public int getLineCount() { return lineCount; }
+        public double getCommitMillis() { return commitNanos / 1_000_000.0; }
+    }
+
+    /**
+     * Record the sale. Returns once it is durable locally (or, without a
+     * journal, committed in MySQL); throws if it could be neither.
+     */
+    public Result checkout(List<CartItem> items, double totalAmount, String cashierEmail) throws SQLException {
+        long start = System.nanoTime();
+        SaleRecord record = SaleRecord.fromCart(items, totalAmount, cashierEmail);
+
+        try {
+            SaleJournal.getInstance().append(record);
+        } catch (IOException e) {
+            System.err.println("⚠ Sale journal unavailable, writing sale directly: " + e.getMessage());
+            new SaleWriter().write(record);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        recordTiming(elapsed);
+        return new Result(record.getId(), record.getTotalItems(), items.size(), elapsed);
+    }
+
+    public static long getCommitCount() { return commitCount.get(); }
+
+    public static double getAverageCommitMillis() {
+        long count = commitCount.get();
+        return count > 0 ? totalCommitNanos.get() / 1_000_000.0 / count : 0.0;
+    }
+
+    public static double getMaxCommitMillis() { return maxCommitNanos.get() / 1_000_000.0; }
+
+    private static void recordTiming(long nanos) {
+        commitCount.incrementAndGet();
+        totalCommitNanos.addAndGet(nanos);
+        maxCommitNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
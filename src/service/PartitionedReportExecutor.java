@@ -0,0 +1,216 @@
+package service;
+
+import app.SalesSummary;
+import database.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes sales summaries over long ranges by splitting the range into
+ * partitions (weeks, or months for ranges over half a year) and aggregating
+ * them concurrently, each on its own pooled connection.
+ *
+ * Every partition runs one query grouped by day; a fork/join task tree splits
+ * the partition list in halves and merges the partial results on the way back
+ * up into the overall total and per-day totals. Parallelism defaults to the
+ * number of cores, capped to leave pool connections free for the registers,
+ * and can be set with the {@code pos.reports.parallelism} system property.
+ */
+public class PartitionedReportExecutor {
+
+    private static final String PARALLELISM_PROPERTY = "pos.reports.parallelism";
+    private static final int RESERVED_CONNECTIONS = 2;
+    private static final long MONTHLY_PARTITIONS_AFTER_DAYS = 183;
+
+    private static final String PARTITION_QUERY =
+            "SELECT DATE(saleDate) AS day, COUNT(*) AS saleCount, " +
+            "SUM(totalAmount) AS totalAmount, SUM(totalItems) AS totalItems, " +
+            "MIN(totalAmount) AS smallestSale, MAX(totalAmount) AS largestSale " +
+            "FROM sales WHERE saleDate >= ? AND saleDate < ? " +
+            "GROUP BY DATE(saleDate)";
+
+    private final ForkJoinPool pool;
+
+    /** Totals for the whole range and each day with sales */
+    public static class Report {
+        private final SalesSummary total;
+        private final List<SalesSummary> days;
+        private final int partitions;
+        private final long elapsedNanos;
+
+        Report(SalesSummary total, List<SalesSummary> days, int partitions, long elapsedNanos) {
+            this.total = total;
+            this.days = days;
+            this.partitions = partitions;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public SalesSummary getTotal() { return total; }
+        public List<SalesSummary> getDays() { return days; }
+        public int getPartitions() { return partitions; }
+        public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+    }
+
+    public PartitionedReportExecutor() {
+        this(defaultParallelism());
+    }
+
+    public PartitionedReportExecutor(int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    public static int defaultParallelism() {
+        int max = Math.max(1, Database.getMaxConnections() - RESERVED_CONNECTIONS);
+        int configured = Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+        return Math.max(1, Math.min(configured, max));
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /** Summarize {@code start <= saleDate < end}; both bounds must fall on midnight */
+    public Report run(LocalDateTime start, LocalDateTime end) throws SQLException {
+        long begin = System.nanoTime();
+        List<LocalDateTime[]> partitions = partition(start, end);
+        Partial merged;
+        try {
+            merged = partitions.isEmpty() ? new Partial() : pool.invoke(new PartitionTask(partitions, 0, partitions.size()));
+        } catch (PartitionFailure e) {
+            throw (SQLException) e.getCause();
+        }
+
+        List<SalesSummary> days = new ArrayList<>();
+        for (Map.Entry<LocalDate, Totals> e : merged.days.entrySet()) {
+            days.add(e.getValue().toSummary(e.getKey().atStartOfDay()));
+        }
+        return new Report(merged.total.toSummary(start), days, partitions.size(), System.nanoTime() - begin);
+    }
+
+    private static List<LocalDateTime[]> partition(LocalDateTime start, LocalDateTime end) {
+        boolean monthly = ChronoUnit.DAYS.between(start, end) > MONTHLY_PARTITIONS_AFTER_DAYS;
+        List<LocalDateTime[]> partitions = new ArrayList<>();
+        LocalDateTime from = start;
+        while (from.isBefore(end)) {
+            LocalDateTime next = monthly
+                    ? from.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay()
+                    : from.plusWeeks(1);
+            LocalDateTime to = next.isBefore(end) ? next : end;
+            partitions.add(new LocalDateTime[] {from, to});
+            from = to;
+        }
+        return partitions;
+    }
+
+    private static Partial query(LocalDateTime start, LocalDateTime end) throws SQLException {
+        Partial partial = new Partial();
+        try (Connection con = Database.connect()) {
+            if (con == null) {
+                throw new SQLException("Database connection failed!");
+            }
+            try (PreparedStatement ps = con.prepareStatement(PARTITION_QUERY)) {
+                ps.setTimestamp(1, Timestamp.valueOf(start));
+                ps.setTimestamp(2, Timestamp.valueOf(end));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Totals row = new Totals();
+                        row.count = rs.getInt("saleCount");
+                        row.amount = rs.getDouble("totalAmount");
+                        row.items = rs.getInt("totalItems");
+                        row.smallest = rs.getDouble("smallestSale");
+                        row.largest = rs.getDouble("largestSale");
+                        partial.total.add(row);
+                        partial.days.computeIfAbsent(rs.getDate("day").toLocalDate(), d -> new Totals()).add(row);
+                    }
+                }
+            }
+        }
+        return partial;
+    }
+
+    private static final class PartitionTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks never leave the pool, so nothing here is ever serialized
+        private final transient List<LocalDateTime[]> partitions;
+        private final int from;
+        private final int to;
+
+        PartitionTask(List<LocalDateTime[]> partitions, int from, int to) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from == 1) {
+                LocalDateTime[] range = partitions.get(from);
+                try {
+                    return query(range[0], range[1]);
+                } catch (SQLException e) {
+                    throw new PartitionFailure(e);
+                }
+            }
+            int mid = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(partitions, from, mid);
+            left.fork();
+            Partial right = new PartitionTask(partitions, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /** Carries a partition's SQLException out of the fork/join pool */
+    private static final class PartitionFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        PartitionFailure(SQLException cause) {
+            super(cause);
+        }
+    }
+
+    private static final class Partial {
+        final Totals total = new Totals();
+        final TreeMap<LocalDate, Totals> days = new TreeMap<>();
+
+        Partial merge(Partial other) {
+            total.add(other.total);
+            other.days.forEach((day, t) -> days.computeIfAbsent(day, d -> new Totals()).add(t));
+            return this;
+        }
+    }
+
+    private static final class Totals {
+        int count;
+        double amount;
+        int items;
+        double smallest = Double.MAX_VALUE;
+        double largest;
+
+        void add(Totals other) {
+            if (other.count == 0) return;
+            count += other.count;
+            amount += other.amount;
+            items += other.items;
+            smallest = Math.min(smallest, other.smallest);
+            largest = Math.max(largest, other.largest);
+        }
+
+        SalesSummary toSummary(LocalDateTime periodStart) {
+            return new SalesSummary(periodStart, null, count, amount, items, count > 0 ? smallest : 0.0, largest);
+        }
+    }
+}
@@ -0,0 +1,662 @@
+package service;
+
+import app.Product;
+import app.ProductModifier;
+import app.ProductModifierOption;
+import app.ProductVariant;
+import cache.ProductCatalog;
+import cache.ProductConfigurationCache;
+import cache.ReferenceData;
+import cache.ScanIndex;
+import database.Database;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads products, variants and modifiers from a CSV or TSV file.
+ *
+ * The first row names the columns (any order, case-insensitive, unknown ones
+ * ignored). A {@code type} column says what each row is; it defaults to product:
+ *
+ *   product   name, price, [description, category, supplier, sku, barcode, cost,
+ *             stock, reorderLevel, baseUnit, inventoryTracking, productType, active]
+ *   variant   parentSku, name, price, [sku, barcode, cost, stock, attributes, active]
+ *   modifier  parentSku, name, [modifierType (single|multiple), required,
+ *             options such as "Small=0|Large=10.50"]
+ *
+ * parentSku refers to a product already in the database or earlier in the file.
+ *
+ * The file is read as a stream and written in chunks of {@value #CHUNK_ROWS}
+ * rows, each chunk one transaction of batched INSERTs (one multi-row statement
+ * per table, thanks to rewriteBatchedStatements). Category and supplier names
+ * are resolved from maps loaded once up front; names not seen before are
+ * created in one batch per chunk, committed on their own. A chunk that fails
+ * is rolled back and replayed row by row, so one bad row costs only itself and
+ * is reported with its line number.
+ */
+public class ProductImporter {
+
+    private static final int CHUNK_ROWS = 1_000;
+    private static final int MAX_REPORTED_ERRORS = 200;
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO Product(name, description, categoryId, supplierId, sku, barcode, " +
+            "inventoryTracking, baseUnit, price, cost, initialStock, currentStock, reorderLevel, " +
+            "productType, isActive, image) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NULL)";
+    private static final String INSERT_VARIANT =
+            "INSERT INTO ProductVariant(productId, name, sku, barcode, price, cost, stock, attributes, isActive) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MODIFIER =
+            "INSERT INTO ProductModifier(productId, name, type, required) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_OPTION =
+            "INSERT INTO ProductModifierOption(name, price, modifierId) VALUES (?, ?, ?)";
+
+    /** A row that could not be imported */
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() { return "Line " + line + ": " + message; }
+    }
+
+    /** What was imported, for the confirmation message */
+    public static class Result {
+        private long rowsRead;
+        private int products;
+        private int variants;
+        private int modifiers;
+        private int options;
+        private int categoriesCreated;
+        private int suppliersCreated;
+        private int errorCount;
+        private final List<RowError> errors = new ArrayList<>();
+        private long elapsedNanos;
+
+        public long getRowsRead() { return rowsRead; }
+        public int getProducts() { return products; }
+        public int getVariants() { return variants; }
+        public int getModifiers() { return modifiers; }
+        public int getOptions() { return options; }
+        public int getCategoriesCreated() { return categoriesCreated; }
+        public int getSuppliersCreated() { return suppliersCreated; }
+        public int getErrorCount() { return errorCount; }
+        /** The first {@value #MAX_REPORTED_ERRORS} errors in file order */
+        public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+        public double getElapsedSeconds() { return elapsedNanos / 1_000_000_000.0; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? rowsRead / getElapsedSeconds() : 0.0;
+        }
+
+        void error(long line, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    /** One parsed row waiting for its chunk to be written */
+    private static final class Row {
+        final long line;
+        final String parentSku;     // variants and modifiers
+        final Product product;
+        final ProductVariant variant;
+        final ProductModifier modifier;
+
+        Row(long line, String parentSku, Product product, ProductVariant variant, ProductModifier modifier) {
+            this.line = line;
+            this.parentSku = parentSku;
+            this.product = product;
+            this.variant = variant;
+            this.modifier = modifier;
+        }
+    }
+
+    // Lower-cased name -> id; MySQL compares these names case-insensitively
+    private final Map<String, Integer> categories = new HashMap<>();
+    private final Map<String, Integer> suppliers = new HashMap<>();
+    // SKU -> product id, for parentSku and duplicate checks
+    private final Map<String, Integer> productSkus = new HashMap<>();
+
+    private Result result;
+    private Map<String, Integer> columns;
+    private char delimiter;
+    private long line;
+
+    /** Import every row of the file; row errors are reported in the result, not thrown */
+    public Result importFile(Path file) throws IOException, SQLException {
+        long begin = System.nanoTime();
+        result = new Result();
+        line = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Connection con = Database.connect();
+            if (con == null) {
+                throw new SQLTransientConnectionException("Database connection failed!");
+            }
+            try (con) {
+                loadReferences(con);
+
+                String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+                delimiter = name.endsWith(".tsv") || name.endsWith(".tab") ? '\t' : ',';
+                List<String> header = readRecord(reader);
+                if (header == null) {
+                    throw new IOException("The file is empty.");
+                }
+                columns = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+                    if (i == 0 && column.startsWith("\uFEFF")) {
+                        column = column.substring(1).trim(); // byte order mark written by Excel
+                    }
+                    columns.put(column, i);
+                }
+                if (!columns.containsKey("name")) {
+                    throw new IOException("The header row has no \"name\" column.");
+                }
+
+                List<Row> chunk = new ArrayList<>(CHUNK_ROWS);
+                List<String> fields;
+                long recordLine = line + 1;
+                while ((fields = readRecord(reader)) != null) {
+                    result.rowsRead++;
+                    Row row = parse(recordLine, fields);
+                    if (row != null) {
+                        chunk.add(row);
+                        if (chunk.size() >= CHUNK_ROWS) {
+                            writeChunk(con, chunk);
+                            chunk.clear();
+                        }
+                    }
+                    recordLine = line + 1;
+                }
+                writeChunk(con, chunk);
+            }
+        } finally {
+            result.elapsedNanos = System.nanoTime() - begin;
+            if (result.products + result.variants + result.modifiers > 0) {
+                ProductCatalog.getInstance().invalidate();
+                ScanIndex.getInstance().invalidate();
+                ProductConfigurationCache.getInstance().invalidate();
+            }
+            if (result.categoriesCreated > 0) ReferenceData.getInstance().invalidateCategories();
+            if (result.suppliersCreated > 0) ReferenceData.getInstance().invalidateSuppliers();
+        }
+        return result;
+    }
+
+    private void loadReferences(Connection con) throws SQLException {
+        loadNames(con, "SELECT id, name FROM Category", categories);
+        loadNames(con, "SELECT id, name FROM Supplier", suppliers);
+        try (Statement st = con.createStatement()) {
+            ResultSet rs = st.executeQuery("SELECT id, sku FROM Product WHERE sku IS NOT NULL AND sku <> ''");
+            while (rs.next()) {
+                productSkus.put(rs.getString("sku"), rs.getInt("id"));
+            }
+        }
+    }
+
+    private static void loadNames(Connection con, String sql, Map<String, Integer> ids) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            ResultSet rs = st.executeQuery(sql);
+            while (rs.next()) {
+                String name = rs.getString("name");
+                if (name != null) {
+                    ids.putIfAbsent(name.trim().toLowerCase(Locale.ROOT), rs.getInt("id"));
+                }
+            }
+        }
+    }
+
+    // ---- parsing ----
+
+    private Row parse(long recordLine, List<String> fields) {
+        try {
+            String type = text(fields, "type");
+            type = type != null ? type.toLowerCase(Locale.ROOT) : "product";
+            switch (type) {
+                case "product":
+                    return new Row(recordLine, null, parseProduct(fields), null, null);
+                case "variant":
+                    return new Row(recordLine, required(fields, "parentsku"), null, parseVariant(fields), null);
+                case "modifier":
+                    return new Row(recordLine, required(fields, "parentsku"), null, null, parseModifier(fields));
+                default:
+                    throw new IllegalArgumentException("Unknown type \"" + type + "\"");
+            }
+        } catch (IllegalArgumentException e) {
+            result.error(recordLine, e.getMessage());
+            return null;
+        }
+    }
+
+    private Product parseProduct(List<String> fields) {
+        Product p = new Product();
+        p.setName(required(fields, "name"));
+        p.setDescription(text(fields, "description"));
+        p.setCategoryName(text(fields, "category"));
+        p.setSupplierName(text(fields, "supplier"));
+        p.setSku(text(fields, "sku"));
+        p.setBarcode(text(fields, "barcode"));
+        p.setPrice(parseAmount(required(fields, "price"), "price"));
+        p.setCost(optionalAmount(fields, "cost"));
+        int stock = count(fields, "stock");
+        p.setInitialStock(stock);
+        p.setCurrentStock(stock);
+        p.setReorderLevel(count(fields, "reorderlevel"));
+        p.setBaseUnit(orDefault(text(fields, "baseunit"), "piece"));
+        p.setInventoryTracking(orDefault(text(fields, "inventorytracking"), "track_stock"));
+        p.setProductType(orDefault(text(fields, "producttype"), "simple"));
+        p.setIsActive(flag(fields, "active", true));
+        return p;
+    }
+
+    private ProductVariant parseVariant(List<String> fields) {
+        ProductVariant v = new ProductVariant();
+        v.setName(required(fields, "name"));
+        v.setSku(text(fields, "sku"));
+        v.setBarcode(text(fields, "barcode"));
+        v.setPrice(parseAmount(required(fields, "price"), "price"));
+        v.setCost(optionalAmount(fields, "cost"));
+        v.setStock(count(fields, "stock"));
+        v.setAttributes(text(fields, "attributes"));
+        v.setIsActive(flag(fields, "active", true));
+        return v;
+    }
+
+    private ProductModifier parseModifier(List<String> fields) {
+        ProductModifier m = new ProductModifier();
+        m.setName(required(fields, "name"));
+        String type = orDefault(text(fields, "modifiertype"), "single").toLowerCase(Locale.ROOT);
+        if (!type.equals("single") && !type.equals("multiple")) {
+            throw new IllegalArgumentException("modifierType must be single or multiple");
+        }
+        m.setType(type);
+        m.setRequired(flag(fields, "required", false));
+        List<ProductModifierOption> options = new ArrayList<>();
+        String spec = text(fields, "options");
+        if (spec != null) {
+            for (String part : spec.split("\\|")) {
+                if (part.trim().isEmpty()) continue;
+                int eq = part.lastIndexOf('=');
+                ProductModifierOption option = new ProductModifierOption();
+                option.setName((eq >= 0 ? part.substring(0, eq) : part).trim());
+                option.setPrice(eq >= 0 ? parseAmount(part.substring(eq + 1), "options") : 0.0);
+                options.add(option);
+            }
+        }
+        m.setOptions(options);
+        return m;
+    }
+
+    private String text(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private String required(List<String> fields, String column) {
+        String value = text(fields, column);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value;
+    }
+
+    private Double optionalAmount(List<String> fields, String column) {
+        String value = text(fields, column);
+        return value != null ? parseAmount(value, column) : null;
+    }
+
+    private static double parseAmount(String value, String column) {
+        try {
+            double amount = Double.parseDouble(value.trim());
+            if (amount < 0 || Double.isNaN(amount) || Double.isInfinite(amount)) {
+                throw new IllegalArgumentException("Invalid " + column + " \"" + value + "\"");
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " \"" + value + "\"");
+        }
+    }
+
+    private int count(List<String> fields, String column) {
+        String value = text(fields, column);
+        if (value == null) return 0;
+        try {
+            int n = Integer.parseInt(value);
+            if (n < 0) throw new NumberFormatException();
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " \"" + value + "\"");
+        }
+    }
+
+    private boolean flag(List<String> fields, String column, boolean defaultValue) {
+        String value = text(fields, column);
+        if (value == null) return defaultValue;
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "1": case "true": case "yes": case "y": return true;
+            case "0": case "false": case "no": case "n": return false;
+            default: throw new IllegalArgumentException("Invalid " + column + " \"" + value + "\"");
+        }
+    }
+
+    private static String orDefault(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Next record, or null at end of file. Quoted fields may contain the
+     * delimiter, doubled quotes and line breaks (RFC 4180).
+     */
+    private List<String> readRecord(BufferedReader reader) throws IOException {
+        String text = reader.readLine();
+        if (text == null) return null;
+        line++;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == text.length()) {
+                if (!quoted) break;
+                // Line break inside a quoted field
+                String next = reader.readLine();
+                if (next == null) break;
+                line++;
+                field.append('\n');
+                text = next;
+                i = 0;
+                continue;
+            }
+            char c = text.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // ---- writing ----
+
+    private void writeChunk(Connection con, List<Row> chunk) throws SQLException {
+        if (chunk.isEmpty()) return;
+        createMissingReferences(con, chunk);
+        Result before = snapshot();
+        Map<String, Integer> newSkus = new HashMap<>();
+        con.setAutoCommit(false);
+        try {
+            List<Row> accepted = checkRows(chunk);
+            insertProducts(con, accepted, newSkus);
+            insertVariants(con, accepted, newSkus);
+            insertModifiers(con, accepted, newSkus);
+            con.commit();
+            productSkus.putAll(newSkus);
+        } catch (SQLException e) {
+            con.rollback();
+            restore(before);
+            if (chunk.size() == 1) {
+                result.error(chunk.get(0).line, e.getMessage());
+            } else {
+                // Find the offending rows by writing the chunk one row at a time
+                for (Row row : chunk) {
+                    writeChunk(con, Collections.singletonList(row));
+                }
+            }
+        } finally {
+            con.setAutoCommit(true);
+        }
+    }
+
+    /** Rows whose parent is known and whose SKU is new; the others are reported */
+    private List<Row> checkRows(List<Row> chunk) {
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        Set<String> chunkSkus = new LinkedHashSet<>();
+        for (Row row : chunk) {
+            if (row.product != null) {
+                String sku = row.product.getSku();
+                if (sku != null && (productSkus.containsKey(sku) || !chunkSkus.add(sku))) {
+                    result.error(row.line, "SKU " + sku + " already exists");
+                    continue;
+                }
+            } else if (!productSkus.containsKey(row.parentSku) && !chunkSkus.contains(row.parentSku)) {
+                result.error(row.line, "No product with SKU " + row.parentSku);
+                continue;
+            }
+            accepted.add(row);
+        }
+        return accepted;
+    }
+
+    private void insertProducts(Connection con, List<Row> rows, Map<String, Integer> newSkus) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(INSERT_PRODUCT, Statement.RETURN_GENERATED_KEYS)) {
+            for (Row row : rows) {
+                if (row.product == null) continue;
+                Product p = row.product;
+                ps.setString(1, p.getName());
+                ps.setString(2, p.getDescription());
+                setId(ps, 3, lookup(categories, p.getCategoryName()));
+                setId(ps, 4, lookup(suppliers, p.getSupplierName()));
+                ps.setString(5, p.getSku());
+                ps.setString(6, p.getBarcode());
+                ps.setString(7, p.getInventoryTracking());
+                ps.setString(8, p.getBaseUnit());
+                ps.setDouble(9, p.getPrice());
+                setAmount(ps, 10, p.getCost());
+                ps.setInt(11, p.getInitialStock());
+                ps.setInt(12, p.getCurrentStock());
+                ps.setInt(13, p.getReorderLevel());
+                ps.setString(14, p.getProductType());
+                ps.setBoolean(15, p.isIsActive());
+                ps.addBatch();
+                products.add(p);
+            }
+            if (products.isEmpty()) return;
+            ps.executeBatch();
+            ResultSet keys = ps.getGeneratedKeys();
+            for (Product p : products) {
+                if (!keys.next()) throw new SQLException("No id generated for product " + p.getName());
+                p.setId(keys.getInt(1));
+                if (p.getSku() != null) {
+                    newSkus.put(p.getSku(), p.getId());
+                }
+            }
+        }
+        result.products += products.size();
+    }
+
+    private void insertVariants(Connection con, List<Row> rows, Map<String, Integer> newSkus) throws SQLException {
+        int count = 0;
+        try (PreparedStatement ps = con.prepareStatement(INSERT_VARIANT)) {
+            for (Row row : rows) {
+                if (row.variant == null) continue;
+                ProductVariant v = row.variant;
+                ps.setInt(1, parentId(row, newSkus));
+                ps.setString(2, v.getName());
+                ps.setString(3, v.getSku());
+                ps.setString(4, v.getBarcode());
+                ps.setDouble(5, v.getPrice());
+                setAmount(ps, 6, v.getCost());
+                ps.setInt(7, v.getStock());
+                ps.setString(8, v.getAttributes());
+                ps.setBoolean(9, v.isIsActive());
+                ps.addBatch();
+                count++;
+            }
+            if (count > 0) ps.executeBatch();
+        }
+        result.variants += count;
+    }
+
+    private void insertModifiers(Connection con, List<Row> rows, Map<String, Integer> newSkus) throws SQLException {
+        List<ProductModifier> modifiers = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(INSERT_MODIFIER, Statement.RETURN_GENERATED_KEYS)) {
+            for (Row row : rows) {
+                if (row.modifier == null) continue;
+                ProductModifier m = row.modifier;
+                ps.setInt(1, parentId(row, newSkus));
+                ps.setString(2, m.getName());
+                ps.setString(3, m.getType());
+                ps.setBoolean(4, m.isRequired());
+                ps.addBatch();
+                modifiers.add(m);
+            }
+            if (modifiers.isEmpty()) return;
+            ps.executeBatch();
+            ResultSet keys = ps.getGeneratedKeys();
+            for (ProductModifier m : modifiers) {
+                if (!keys.next()) throw new SQLException("No id generated for modifier " + m.getName());
+                m.setId(keys.getInt(1));
+            }
+        }
+        int options = 0;
+        try (PreparedStatement ps = con.prepareStatement(INSERT_OPTION)) {
+            for (ProductModifier m : modifiers) {
+                for (ProductModifierOption option : m.getOptions()) {
+                    ps.setString(1, option.getName());
+                    ps.setDouble(2, option.getPrice());
+                    ps.setInt(3, m.getId());
+                    ps.addBatch();
+                    options++;
+                }
+            }
+            if (options > 0) ps.executeBatch();
+        }
+        result.modifiers += modifiers.size();
+        result.options += options;
+    }
+
+    private int parentId(Row row, Map<String, Integer> newSkus) {
+        Integer id = newSkus.get(row.parentSku);
+        return id != null ? id : productSkus.get(row.parentSku);
+    }
+
+    /** Create the categories and suppliers this chunk names that do not exist yet, one batch each */
+    private void createMissingReferences(Connection con, List<Row> chunk) throws SQLException {
+        Set<String> newCategories = new LinkedHashSet<>();
+        Set<String> newSuppliers = new LinkedHashSet<>();
+        for (Row row : chunk) {
+            if (row.product == null) continue;
+            String category = row.product.getCategoryName();
+            if (category != null && lookup(categories, category) == null) newCategories.add(category);
+            String supplier = row.product.getSupplierName();
+            if (supplier != null && lookup(suppliers, supplier) == null) newSuppliers.add(supplier);
+        }
+        result.categoriesCreated += insertNames(con, "INSERT INTO Category(name) VALUES (?)", newCategories, categories);
+        result.suppliersCreated += insertNames(con, "INSERT INTO Supplier(name) VALUES (?)", newSuppliers, suppliers);
+    }
+
+    private static int insertNames(Connection con, String sql, Set<String> names, Map<String, Integer> ids)
+            throws SQLException {
+        Map<String, String> byKey = new HashMap<>();
+        for (String name : names) {
+            byKey.putIfAbsent(name.trim().toLowerCase(Locale.ROOT), name.trim());
+        }
+        if (byKey.isEmpty()) return 0;
+        List<String> keys = new ArrayList<>(byKey.keySet());
+        try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (String key : keys) {
+                ps.setString(1, byKey.get(key));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            ResultSet rs = ps.getGeneratedKeys();
+            for (String key : keys) {
+                if (!rs.next()) throw new SQLException("No id generated for " + byKey.get(key));
+                ids.put(key, rs.getInt(1));
+            }
+        }
+        return keys.size();
+    }
+
+    private static Integer lookup(Map<String, Integer> ids, String name) {
+        return name != null ? ids.get(name.trim().toLowerCase(Locale.ROOT)) : null;
+    }
+
+    private static void setId(PreparedStatement ps, int index, Integer id) throws SQLException {
+        if (id != null) {
+            ps.setInt(index, id);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static void setAmount(PreparedStatement ps, int index, Double amount) throws SQLException {
+        if (amount != null) {
+            ps.setDouble(index, amount);
+        } else {
+            ps.setNull(index, Types.DECIMAL);
+        }
+    }
+
+    private Result snapshot() {
+        Result copy = new Result();
+        copy.products = result.products;
+        copy.variants = result.variants;
+        copy.modifiers = result.modifiers;
+        copy.options = result.options;
+        copy.errorCount = result.errorCount;
+        copy.errors.addAll(result.errors);
+        return copy;
+    }
+
+    /** Undo the counts and errors of a chunk that was rolled back */
+    private void restore(Result before) {
+        result.products = before.products;
+        result.variants = before.variants;
+        result.modifiers = before.modifiers;
+        result.options = before.options;
+        result.errorCount = before.errorCount;
+        result.errors.clear();
+        result.errors.addAll(before.errors);
+    }
+}
@@ -0,0 +1,133 @@
+package service;
+
+import database.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Best- and worst-selling products over a date range, by quantity, revenue or
+ * margin (revenue minus quantity times Product.cost).
+ *
+ * MySQL sums sale_items per product, so one row per product sold comes back
+ * rather than one per line; those rows are streamed through a forward-only
+ * cursor into a heap bounded at N, so memory does not depend on how many
+ * products or sales the range covers. For worst sellers, active products that
+ * did not sell at all in the range are ranked too (with zeros), since they are
+ * the worst of all.
+ */
+public class ProductSalesRanking {
+
+    private static final String SOLD =
+            "SELECT i.productId, MAX(i.productName) AS productName, SUM(i.quantity) AS quantity, " +
+            "SUM(i.subtotal) AS revenue, MAX(p.cost) AS cost " +
+            "FROM sale_items i JOIN sales s ON s.id = i.saleId " +
+            "LEFT JOIN Product p ON p.id = i.productId " +
+            "WHERE s.saleDate >= ? AND s.saleDate < ? " +
+            "GROUP BY i.productId";
+    private static final String UNSOLD =
+            "SELECT p.id AS productId, p.name AS productName, 0 AS quantity, 0 AS revenue, p.cost AS cost " +
+            "FROM Product p WHERE p.isActive = TRUE AND NOT EXISTS (" +
+            "SELECT 1 FROM sale_items i JOIN sales s ON s.id = i.saleId " +
+            "WHERE i.productId = p.id AND s.saleDate >= ? AND s.saleDate < ?)";
+
+    public enum Metric { QUANTITY, REVENUE, MARGIN }
+
+    /** One product's sales over the range */
+    public static class Row {
+        private final int productId;
+        private final String productName;
+        private final int quantity;
+        private final double revenue;
+        private final Double unitCost; // null when the product has no cost recorded
+
+        Row(int productId, String productName, int quantity, double revenue, Double unitCost) {
+            this.productId = productId;
+            this.productName = productName;
+            this.quantity = quantity;
+            this.revenue = revenue;
+            this.unitCost = unitCost;
+        }
+
+        public int getProductId() { return productId; }
+        public String getProductName() { return productName; }
+        public int getQuantity() { return quantity; }
+        public double getRevenue() { return revenue; }
+        public Double getUnitCost() { return unitCost; }
+
+        /** Revenue less cost of goods, or null without a product cost */
+        public Double getMargin() {
+            return unitCost != null ? revenue - unitCost * quantity : null;
+        }
+
+        double value(Metric metric) {
+            switch (metric) {
+                case QUANTITY: return quantity;
+                case REVENUE: return revenue;
+                default: return getMargin();
+            }
+        }
+    }
+
+    /**
+     * The {@code limit} best (or worst) products for {@code start <= saleDate < end},
+     * ranked first to last. Products without a cost are left out of a margin ranking.
+     */
+    public List<Row> rank(LocalDateTime start, LocalDateTime end, Metric metric, int limit, boolean best)
+            throws SQLException {
+        // The heap's head is the row that drops out first: the weakest of the best, or the strongest of the worst
+        Comparator<Row> ranking = Comparator.comparingDouble((Row r) -> r.value(metric))
+                .thenComparing(Row::getProductId, Comparator.reverseOrder());
+        Comparator<Row> evictFirst = best ? ranking : ranking.reversed();
+        PriorityQueue<Row> heap = new PriorityQueue<>(limit + 1, evictFirst);
+
+        try (Connection con = Database.connect()) {
+            if (con == null) {
+                throw new SQLException("Database connection failed!");
+            }
+            stream(con, SOLD, start, end, metric, limit, heap, evictFirst);
+            if (!best) {
+                stream(con, UNSOLD, start, end, metric, limit, heap, evictFirst);
+            }
+        }
+
+        List<Row> result = new ArrayList<>(heap);
+        result.sort(evictFirst);
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void stream(Connection con, String sql, LocalDateTime start, LocalDateTime end, Metric metric,
+                        int limit, PriorityQueue<Row> heap, Comparator<Row> evictFirst) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Database.STREAMING_FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(start));
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    double cost = rs.getDouble("cost");
+                    Double unitCost = rs.wasNull() ? null : cost;
+                    if (metric == Metric.MARGIN && unitCost == null) continue;
+                    Row row = new Row(rs.getInt("productId"), rs.getString("productName"),
+                            rs.getInt("quantity"), rs.getDouble("revenue"), unitCost);
+                    if (heap.size() < limit) {
+                        heap.add(row);
+                    } else if (evictFirst.compare(row, heap.peek()) > 0) {
+                        heap.poll();
+                        heap.add(row);
+                    }
+                }
+            }
+        }
+    }
+}
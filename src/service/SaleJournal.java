@@ -0,0 +1,339 @@
+package service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLNonTransientException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Local write-ahead journal for completed sales.
+ *
+ * {@link #append(SaleRecord)} writes the sale to an append-only file and
+ * fsyncs it before returning, so checkout never waits on MySQL. A background
+ * flusher replays journaled sales into the database in order through
+ * {@link SaleWriter}, which makes each replay idempotent; the byte offset of
+ * the last applied entry is kept in a checkpoint file.
+ *
+ * Each entry is one line: the CRC32 of the payload in hex, a space, and the
+ * {@link SaleRecord#encode() encoded} record. On startup entries after the
+ * checkpoint are queued again and a torn final line (a crash mid-write) is cut
+ * off; a damaged line with intact entries after it is copied to the rejected
+ * file and skipped, so the sales behind it are kept. Records the database
+ * rejects outright (constraint or syntax errors) are moved to the rejected
+ * file too instead of blocking the ones behind them; anything else, like
+ * MySQL being down, is retried with backoff.
+ */
+public class SaleJournal {
+
+    private static final Path DIR = Paths.get(System.getProperty("user.home"), ".pos", "journal");
+    private static final long RETRY_MIN_MS = 1_000;
+    private static final long RETRY_MAX_MS = 30_000;
+    private static final long COMPACT_BYTES = 4L * 1024 * 1024;
+
+    private static SaleJournal instance;
+
+    private final Path journalFile;
+    private final Path checkpointFile;
+    private final Path rejectedFile;
+    private final SaleWriter writer;
+    private final FileChannel channel;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasPending = lock.newCondition();
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private long endOffset;
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+    private static final class Pending {
+        final SaleRecord record;
+        final String line;
+        final long endOffset;
+
+        Pending(SaleRecord record, String line, long endOffset) {
+            this.record = record;
+            this.line = line;
+            this.endOffset = endOffset;
+        }
+    }
+
+    /** The journal for this process, opened (and recovered) on first use */
+    public static synchronized SaleJournal getInstance() throws IOException {
+        if (instance == null) {
+            instance = new SaleJournal(DIR, new SaleWriter());
+        }
+        return instance;
+    }
+
+    /** Drain what MySQL will take within {@code timeoutMillis}, then stop; pending sales stay journaled */
+    public static synchronized void shutdown(long timeoutMillis) {
+        if (instance != null) {
+            instance.close(timeoutMillis);
+            instance = null;
+        }
+    }
+
+    SaleJournal(Path dir, SaleWriter writer) throws IOException {
+        Files.createDirectories(dir);
+        this.journalFile = dir.resolve("sales.journal");
+        this.checkpointFile = dir.resolve("sales.checkpoint");
+        this.rejectedFile = dir.resolve("sales.rejected");
+        this.writer = writer;
+        this.channel = FileChannel.open(journalFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+
+        flusher = new Thread(this::flushLoop, "sale-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /** Durably record a sale; it is written to MySQL in the background */
+    public void append(SaleRecord record) throws IOException {
+        String payload = record.encode();
+        String line = crc(payload) + " " + payload + "\n";
+        ByteBuffer buf = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IOException("Sale journal is closed");
+            }
+            long start = endOffset;
+            while (buf.hasRemaining()) {
+                channel.write(buf, endOffset + buf.position());
+            }
+            channel.force(false);
+            endOffset = start + buf.limit();
+            pending.addLast(new Pending(record, line, endOffset));
+            hasPending.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Sales journaled but not yet written to MySQL */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        long size = channel.size();
+        long offset = readCheckpoint();
+        if (offset > size) {
+            offset = 0; // file was compacted after the checkpoint was written
+        }
+        ByteBuffer buf = ByteBuffer.allocate((int) (size - offset));
+        while (buf.hasRemaining() && channel.read(buf, offset + buf.position()) >= 0) {
+            // keep reading
+        }
+        byte[] bytes = buf.array();
+        int start = 0;
+        int validEnd = 0; // just past the last entry that decoded
+        int recovered = 0;
+        int skipped = 0;
+        List<byte[]> damaged = new ArrayList<>(); // bad lines since the last good one
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') continue;
+            String line = new String(bytes, start, i - start, StandardCharsets.UTF_8);
+            SaleRecord record = parse(line);
+            if (record == null) {
+                damaged.add(Arrays.copyOfRange(bytes, start, i + 1));
+            } else {
+                // Intact entries follow, so the bad lines were not a torn tail: set them aside
+                for (byte[] bad : damaged) {
+                    Files.write(rejectedFile, bad, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                skipped += damaged.size();
+                damaged.clear();
+                pending.addLast(new Pending(record, line + "\n", offset + i + 1));
+                recovered++;
+                validEnd = i + 1;
+            }
+            start = i + 1;
+        }
+        if (skipped > 0) {
+            System.err.println("⚠ Sale journal: skipped " + skipped + " damaged entr" + (skipped == 1 ? "y" : "ies")
+                    + ", copied to " + rejectedFile);
+        }
+        endOffset = offset + validEnd;
+        if (endOffset < size) {
+            System.err.println("⚠ Sale journal: discarding " + (size - endOffset) + " bytes of incomplete entry at the end");
+            channel.truncate(endOffset);
+            channel.force(true);
+        }
+        if (recovered > 0) {
+            System.out.println("↻ Sale journal: " + recovered + " sale(s) waiting to be written to the database");
+        }
+    }
+
+    private static SaleRecord parse(String line) {
+        int space = line.indexOf(' ');
+        if (space < 0) return null;
+        String payload = line.substring(space + 1);
+        if (!line.substring(0, space).equals(crc(payload))) return null;
+        try {
+            return SaleRecord.decode(payload);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void flushLoop() {
+        long backoff = RETRY_MIN_MS;
+        while (running || hasWork()) {
+            Pending next;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && running) {
+                    hasPending.await();
+                }
+                next = pending.peekFirst();
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                lock.unlock();
+            }
+            if (next == null) break;
+
+            try {
+                writer.write(next.record);
+                advance(next);
+                backoff = RETRY_MIN_MS;
+            } catch (SQLException e) {
+                if (isPermanent(e)) {
+                    System.err.println("❌ Sale journal: database rejected sale " + next.record.getId()
+                            + ", moved to " + rejectedFile + ": " + e.getMessage());
+                    try {
+                        Files.writeString(rejectedFile, next.line,
+                                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                        advance(next);
+                    } catch (IOException io) {
+                        io.printStackTrace();
+                        if (!sleep(backoff)) break;
+                    }
+                } else {
+                    System.err.println("⚠ Sale journal: database unavailable, retrying in "
+                            + backoff / 1000 + "s (" + e.getMessage() + ")");
+                    if (!running || !sleep(backoff)) break;
+                    backoff = Math.min(backoff * 2, RETRY_MAX_MS);
+                }
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+                if (!sleep(backoff)) break;
+            }
+        }
+    }
+
+    /** Mark an entry as applied and compact the file once everything before it is */
+    private void advance(Pending done) throws IOException {
+        writeCheckpoint(done.endOffset);
+        lock.lock();
+        try {
+            pending.pollFirst();
+            if (pending.isEmpty() && endOffset >= COMPACT_BYTES) {
+                // Checkpoint first: a crash in between only replays entries that are already applied
+                writeCheckpoint(0);
+                channel.truncate(0);
+                channel.force(true);
+                endOffset = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasWork() {
+        lock.lock();
+        try {
+            return !pending.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void close(long timeoutMillis) {
+        lock.lock();
+        try {
+            running = false;
+            hasPending.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(timeoutMillis);
+            if (flusher.isAlive()) {
+                flusher.interrupt();
+                flusher.join(1_000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (!pending.isEmpty()) {
+                System.out.println("Sale journal: " + pending.size() + " sale(s) will be written on next start");
+            }
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) return 0;
+        try {
+            return Long.parseLong(Files.readString(checkpointFile).trim());
+        } catch (NumberFormatException e) {
+            return 0; // replaying from the start is safe, just slower
+        }
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Path tmp = checkpointFile.resolveSibling("sales.checkpoint.tmp");
+        Files.writeString(tmp, Long.toString(offset));
+        Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Constraint and syntax errors will fail again on retry; lost connections will not */
+    private static boolean isPermanent(SQLException e) {
+        return e instanceof SQLNonTransientException && !(e instanceof SQLNonTransientConnectionException);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static String crc(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+}
@@ -0,0 +1,138 @@
+package service;
+
+import app.CartItem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A completed sale as written to the {@link SaleJournal} and replayed into MySQL.
+ *
+ * Captures everything the database write needs, so the cart can be cleared as
+ * soon as the record is durable. The id is a random UUID that doubles as the
+ * idempotency key when the record is applied.
+ */
+public class SaleRecord {
+
+    /** One cart line, frozen at checkout */
+    public static class Line {
+        private final int productId;
+        private final int variantId;   // -1 when no variant was chosen
+        private final String productName;
+        private final int quantity;
+        private final double price;
+        private final double subtotal;
+
+        public Line(int productId, int variantId, String productName, int quantity, double price, double subtotal) {
+            this.productId = productId;
+            this.variantId = variantId;
+            this.productName = productName;
+            this.quantity = quantity;
+            this.price = price;
+            this.subtotal = subtotal;
+        }
+
+        public int getProductId() { return productId; }
+        public int getVariantId() { return variantId; }
+        public String getProductName() { return productName; }
+        public int getQuantity() { return quantity; }
+        public double getPrice() { return price; }
+        public double getSubtotal() { return subtotal; }
+    }
+
+    private final String id;
+    private final LocalDateTime saleDate;
+    private final double totalAmount;
+    private final int totalItems;
+    private final String cashierEmail;
+    private final List<Line> lines;
+
+    public SaleRecord(String id, LocalDateTime saleDate, double totalAmount, int totalItems,
+                      String cashierEmail, List<Line> lines) {
+        this.id = id;
+        this.saleDate = saleDate;
+        this.totalAmount = totalAmount;
+        this.totalItems = totalItems;
+        this.cashierEmail = cashierEmail;
+        this.lines = Collections.unmodifiableList(new ArrayList<>(lines));
+    }
+
+    /** Snapshot a cart as a new sale record dated now */
+    public static SaleRecord fromCart(List<CartItem> items, double totalAmount, String cashierEmail) {
+        List<Line> lines = new ArrayList<>(items.size());
+        int totalItems = 0;
+        for (CartItem item : items) {
+            totalItems += item.getQuantity();
+            lines.add(new Line(item.getProductId(), item.getVariantId(), item.getProduct().getName(),
+                    item.getQuantity(), item.getPrice(), item.getSubtotal()));
+        }
+        return new SaleRecord(UUID.randomUUID().toString(), LocalDateTime.now(), totalAmount, totalItems,
+                cashierEmail, lines);
+    }
+
+    public String getId() { return id; }
+    public LocalDateTime getSaleDate() { return saleDate; }
+    public double getTotalAmount() { return totalAmount; }
+    public int getTotalItems() { return totalItems; }
+    public String getCashierEmail() { return cashierEmail; }
+    public List<Line> getLines() { return lines; }
+
+    /**
+     * Single-line text form used in the journal: tab-separated header fields
+     * followed by one field per line. Free text is Base64 encoded so it can
+     * never contain a separator.
+     */
+    String encode() {
+        StringBuilder sb = new StringBuilder(64 + lines.size() * 48);
+        sb.append(id).append('\t')
+          .append(saleDate).append('\t')
+          .append(totalAmount).append('\t')
+          .append(totalItems).append('\t')
+          .append(b64(cashierEmail)).append('\t')
+          .append(lines.size());
+        for (Line l : lines) {
+            sb.append('\t')
+              .append(l.productId).append(',')
+              .append(l.variantId).append(',')
+              .append(l.quantity).append(',')
+              .append(l.price).append(',')
+              .append(l.subtotal).append(',')
+              .append(b64(l.productName));
+        }
+        return sb.toString();
+    }
+
+    /** Inverse of {@link #encode()}; throws IllegalArgumentException on malformed input */
+    static SaleRecord decode(String text) {
+        try {
+            String[] f = text.split("\t", -1);
+            int lineCount = Integer.parseInt(f[5]);
+            if (f.length != 6 + lineCount) {
+                throw new IllegalArgumentException("Expected " + lineCount + " lines, found " + (f.length - 6));
+            }
+            List<Line> lines = new ArrayList<>(lineCount);
+            for (int i = 0; i < lineCount; i++) {
+                String[] l = f[6 + i].split(",", -1);
+                lines.add(new Line(Integer.parseInt(l[0]), Integer.parseInt(l[1]), unb64(l[5]),
+                        Integer.parseInt(l[2]), Double.parseDouble(l[3]), Double.parseDouble(l[4])));
+            }
+            return new SaleRecord(f[0], LocalDateTime.parse(f[1]), Double.parseDouble(f[2]),
+                    Integer.parseInt(f[3]), unb64(f[4]), lines);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed sale record: " + e.getMessage(), e);
+        }
+    }
+
+    private static String b64(String s) {
+        return s == null ? "" : Base64.getEncoder().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String unb64(String s) {
+        return s.isEmpty() ? null : new String(Base64.getDecoder().decode(s), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,181 @@
+package service;
+
+import cache.ReportCache;
+import dao.SalesRollupDAO;
+import dao.impl.SalesRollupDAOImpl;
+import database.Database;
+import database.SchemaBootstrap;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies a {@link SaleRecord} to MySQL in one transaction with a fixed number
+ * of round trips, however many lines the sale has:
+ *
+ *   1. look the record id up in sale_journal_applied (replays stop here)
+ *   2. INSERT the sales header and read back its id
+ *   3. INSERT every sale_items row as one batch (sent as a single multi-row
+ *      INSERT thanks to rewriteBatchedStatements on the connection URL)
+ *   4. UPDATE Product stock as one batch, one row per distinct product
+ *   5. UPDATE ProductVariant stock as one batch, when variants were sold
+ *   6. add the sale to its hour's sales_rollup row
+ *   7. INSERT the record id into sale_journal_applied
+ *   8. COMMIT
+ *
+ * Because the applied marker commits with the sale, writing the same record
+ * twice (e.g. replaying the journal after a crash) records it only once.
+ */
+public class SaleWriter {
+
+    private static final String FIND_APPLIED =
+            "SELECT saleId FROM sale_journal_applied WHERE entryId = ?";
+    private static final String MARK_APPLIED =
+            "INSERT INTO sale_journal_applied (entryId, saleId, appliedAt) VALUES (?, ?, NOW())";
+    private static final String INSERT_SALE =
+            "INSERT INTO sales (saleDate, totalAmount, totalItems, cashierEmail) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_ITEM =
+            "INSERT INTO sale_items (saleId, productId, productName, quantity, price, subtotal) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DECREMENT_PRODUCT =
+            "UPDATE Product SET currentStock = currentStock - ? WHERE id = ?";
+    private static final String DECREMENT_VARIANT =
+            "UPDATE ProductVariant SET stock = stock - ? WHERE id = ?";
+
+    private final SalesRollupDAO rollupDAO = new SalesRollupDAOImpl();
+
+    // Shared by every writer in this process
+    private static final AtomicLong writeCount = new AtomicLong();
+    private static final AtomicLong totalWriteNanos = new AtomicLong();
+    private static final AtomicLong maxWriteNanos = new AtomicLong();
+
+    /**
+     * Write the sale and decrement stock atomically, unless this record was
+     * already applied. Returns the sales.id of the (possibly earlier) write.
+     * On failure the transaction is rolled back and the exception rethrown.
+     */
+    public int write(SaleRecord record) throws SQLException {
+        long start = System.nanoTime();
+
+        // Merge lines of the same product/variant so each row is updated once
+        Map<Integer, Integer> productQuantities = new LinkedHashMap<>();
+        Map<Integer, Integer> variantQuantities = new LinkedHashMap<>();
+        for (SaleRecord.Line line : record.getLines()) {
+            productQuantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            if (line.getVariantId() >= 0) {
+                variantQuantities.merge(line.getVariantId(), line.getQuantity(), Integer::sum);
+            }
+        }
+
+        Connection con = SchemaBootstrap.ensure() ? Database.connect() : null;
+        if (con == null) {
+            throw new SQLTransientConnectionException("Database connection failed!");
+        }
+        try (con) {
+            con.setAutoCommit(false);
+            try {
+                int existing = findApplied(con, record.getId());
+                if (existing > 0) {
+                    con.rollback();
+                    return existing;
+                }
+                int saleId = insertSale(con, record);
+                insertItems(con, saleId, record);
+                decrement(con, DECREMENT_PRODUCT, productQuantities);
+                if (!variantQuantities.isEmpty()) {
+                    decrement(con, DECREMENT_VARIANT, variantQuantities);
+                }
+                rollupDAO.recordSale(con, record.getSaleDate(), record.getCashierEmail(),
+                        record.getTotalAmount(), record.getTotalItems());
+                markApplied(con, record.getId(), saleId);
+                con.commit();
+                ReportCache.getInstance().saleRecorded(record.getSaleDate());
+
+                recordTiming(System.nanoTime() - start);
+                return saleId;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            }
+        }
+    }
+
+    public static long getWriteCount() { return writeCount.get(); }
+
+    public static double getAverageWriteMillis() {
+        long count = writeCount.get();
+        return count > 0 ? totalWriteNanos.get() / 1_000_000.0 / count : 0.0;
+    }
+
+    public static double getMaxWriteMillis() { return maxWriteNanos.get() / 1_000_000.0; }
+
+    private int findApplied(Connection con, String entryId) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(FIND_APPLIED)) {
+            ps.setString(1, entryId);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+
+    private void markApplied(Connection con, String entryId, int saleId) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(MARK_APPLIED)) {
+            ps.setString(1, entryId);
+            ps.setInt(2, saleId);
+            ps.executeUpdate();
+        }
+    }
+
+    private int insertSale(Connection con, SaleRecord record) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(INSERT_SALE, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setTimestamp(1, Timestamp.valueOf(record.getSaleDate()));
+            ps.setDouble(2, record.getTotalAmount());
+            ps.setInt(3, record.getTotalItems());
+            ps.setString(4, record.getCashierEmail());
+            ps.executeUpdate();
+            ResultSet rs = ps.getGeneratedKeys();
+            if (!rs.next()) {
+                throw new SQLException("No id generated for sale");
+            }
+            return rs.getInt(1);
+        }
+    }
+
+    private void insertItems(Connection con, int saleId, SaleRecord record) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(INSERT_ITEM)) {
+            for (SaleRecord.Line line : record.getLines()) {
+                ps.setInt(1, saleId);
+                ps.setInt(2, line.getProductId());
+                ps.setString(3, line.getProductName());
+                ps.setInt(4, line.getQuantity());
+                ps.setDouble(5, line.getPrice());
+                ps.setDouble(6, line.getSubtotal());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void decrement(Connection con, String sql, Map<Integer, Integer> quantities) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (Map.Entry<Integer, Integer> e : quantities.entrySet()) {
+                ps.setInt(1, e.getValue());
+                ps.setInt(2, e.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void recordTiming(long nanos) {
+        writeCount.incrementAndGet();
+        totalWriteNanos.addAndGet(nanos);
+        maxWriteNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
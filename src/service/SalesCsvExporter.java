@@ -0,0 +1,243 @@
+package service;
+
+import database.Database;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes sales straight from the database to a CSV file in constant memory.
+ *
+ * Rows are read through a forward-only, read-only statement with
+ * Connector/J's streaming fetch size, so MySQL sends them one at a time
+ * instead of the driver buffering the whole result. Each row is formatted by
+ * hand into one reused StringBuilder (no DateTimeFormatter or String.format per
+ * row) and encoded into a fixed direct buffer that is written to a FileChannel
+ * whenever it fills up.
+ */
+public class SalesCsvExporter {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private static final String SALES_HEADER = "Sale ID,Date & Time,Total Amount,Items,Cashier\n";
+    private static final String ITEMS_HEADER =
+            "Sale ID,Date & Time,Total Amount,Items,Cashier,Product ID,Product,Quantity,Price,Subtotal\n";
+
+    /** What was written, for the confirmation message */
+    public static class Result {
+        private final long saleCount;
+        private final long rowCount;
+        private final BigDecimal totalAmount;
+        private final long totalItems;
+
+        Result(long saleCount, long rowCount, BigDecimal totalAmount, long totalItems) {
+            this.saleCount = saleCount;
+            this.rowCount = rowCount;
+            this.totalAmount = totalAmount;
+            this.totalItems = totalItems;
+        }
+
+        public long getSaleCount() { return saleCount; }
+        public long getRowCount() { return rowCount; }
+        public BigDecimal getTotalAmount() { return totalAmount; }
+        public long getTotalItems() { return totalItems; }
+    }
+
+    private final StringBuilder row = new StringBuilder(256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private FileChannel channel;
+
+    /**
+     * Export sales with {@code start <= saleDate < end}, newest first; both
+     * bounds null exports everything. With {@code includeItems} every
+     * sale_items row becomes a CSV row carrying its sale's columns.
+     */
+    public Result export(Path file, LocalDateTime start, LocalDateTime end, boolean includeItems)
+            throws SQLException, IOException {
+        boolean ranged = start != null && end != null;
+        String where = ranged ? "WHERE s.saleDate >= ? AND s.saleDate < ? " : "";
+        String sql = includeItems
+                ? "SELECT s.id, s.saleDate, s.totalAmount, s.totalItems, s.cashierEmail, " +
+                  "i.productId, i.productName, i.quantity, i.price, i.subtotal " +
+                  "FROM sales s LEFT JOIN sale_items i ON i.saleId = s.id " + where +
+                  "ORDER BY s.saleDate DESC, s.id DESC, i.id"
+                : "SELECT s.id, s.saleDate, s.totalAmount, s.totalItems, s.cashierEmail " +
+                  "FROM sales s " + where + "ORDER BY s.saleDate DESC, s.id DESC";
+
+        long saleCount = 0;
+        long rowCount = 0;
+        long totalItems = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        try (Connection con = Database.connect()) {
+            if (con == null) {
+                throw new SQLException("Database connection failed!");
+            }
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                         StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 PreparedStatement ps = con.prepareStatement(sql,
+                         ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                channel = ch;
+                out.clear();
+                encoder.reset();
+                ps.setFetchSize(Database.STREAMING_FETCH_SIZE);
+                if (ranged) {
+                    ps.setTimestamp(1, Timestamp.valueOf(start));
+                    ps.setTimestamp(2, Timestamp.valueOf(end));
+                }
+
+                row.setLength(0);
+                row.append(includeItems ? ITEMS_HEADER : SALES_HEADER);
+                emit();
+
+                int lastSaleId = -1;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int saleId = rs.getInt(1);
+                        BigDecimal amount = rs.getBigDecimal(3);
+                        int items = rs.getInt(4);
+                        if (saleId != lastSaleId) {
+                            lastSaleId = saleId;
+                            saleCount++;
+                            totalItems += items;
+                            if (amount != null) totalAmount = totalAmount.add(amount);
+                        }
+
+                        row.setLength(0);
+                        row.append(saleId).append(',');
+                        appendDateTime(rs.getTimestamp(2));
+                        row.append(',');
+                        appendDecimal(amount);
+                        row.append(',').append(items).append(',');
+                        String cashier = rs.getString(5);
+                        appendText(cashier != null ? cashier : "N/A");
+                        if (includeItems) {
+                            int productId = rs.getInt(6);
+                            if (rs.wasNull()) {
+                                row.append(",,,,,"); // sale without item rows
+                            } else {
+                                row.append(',').append(productId).append(',');
+                                appendText(rs.getString(7));
+                                row.append(',').append(rs.getInt(8)).append(',');
+                                appendDecimal(rs.getBigDecimal(9));
+                                row.append(',');
+                                appendDecimal(rs.getBigDecimal(10));
+                            }
+                        }
+                        row.append('\n');
+                        emit();
+                        rowCount++;
+                    }
+                }
+
+                row.setLength(0);
+                row.append("\nSummary\n");
+                row.append("Total Transactions,").append(saleCount).append('\n');
+                row.append("Total Sales,").append(totalAmount.setScale(2, RoundingMode.HALF_UP).toPlainString()).append('\n');
+                row.append("Total Items Sold,").append(totalItems).append('\n');
+                row.append("Average Sale,").append(saleCount > 0
+                        ? totalAmount.divide(BigDecimal.valueOf(saleCount), 2, RoundingMode.HALF_UP).toPlainString()
+                        : "0.00").append('\n');
+                if (ranged) {
+                    row.append("Report Period,").append(start.toLocalDate())
+                       .append(" to ").append(end.minusNanos(1).toLocalDate()).append('\n');
+                }
+                emit();
+                flushBuffer(true);
+                ch.force(false);
+            } finally {
+                channel = null;
+            }
+        }
+        return new Result(saleCount, rowCount, totalAmount, totalItems);
+    }
+
+    /** Encode the row buffer into the output buffer, writing it out whenever it fills */
+    private void emit() throws IOException {
+        CharBuffer chars = CharBuffer.wrap(row);
+        while (true) {
+            CoderResult result = encoder.encode(chars, out, false);
+            if (result.isOverflow()) {
+                flushBuffer(false);
+            } else if (result.isUnderflow()) {
+                return;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void flushBuffer(boolean endOfInput) throws IOException {
+        if (endOfInput) {
+            encoder.encode(CharBuffer.allocate(0), out, true);
+            encoder.flush(out);
+        }
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /** yyyy-MM-dd HH:mm:ss without allocating a formatter */
+    private void appendDateTime(Timestamp timestamp) {
+        if (timestamp == null) return;
+        LocalDateTime t = timestamp.toLocalDateTime();
+        row.append(t.getYear()).append('-');
+        pad2(t.getMonthValue());
+        row.append('-');
+        pad2(t.getDayOfMonth());
+        row.append(' ');
+        pad2(t.getHour());
+        row.append(':');
+        pad2(t.getMinute());
+        row.append(':');
+        pad2(t.getSecond());
+    }
+
+    private void pad2(int value) {
+        if (value < 10) row.append('0');
+        row.append(value);
+    }
+
+    private void appendDecimal(BigDecimal value) {
+        if (value != null) row.append(value.toPlainString());
+    }
+
+    /** Quote a field only when it holds a separator, quote or line break */
+    private void appendText(String value) {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') row.append('"');
+            row.append(c);
+        }
+        row.append('"');
+    }
+}